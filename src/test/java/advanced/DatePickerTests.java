@@ -1,6 +1,11 @@
 package advanced;
 
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.TextStyle;
+import java.util.Locale;
 import org.testng.Assert;
+import org.testng.SkipException;
 import org.testng.annotations.Test;
 import base.BaseTest;
 import io.qameta.allure.Description;
@@ -10,12 +15,16 @@ import io.qameta.allure.Story;
 import io.qameta.allure.Severity;
 import io.qameta.allure.SeverityLevel;
 import pages.DatePickerPage;
+import utils.CommandBudget;
 
 /**
  * DatePickerTests contains Selenium tests for interacting with a jQuery UI datepicker.
  * 
  * Includes tests for selecting future and past dates, validating that the selected
- * date appears correctly in the input field.
+ * date appears correctly in the input field, and a date ten years ahead that must
+ * be reached without clicking through every month in between. Separate tests
+ * check that the month jump leaves the input field alone (against the live
+ * page's jQuery UI widget) and that the click-by-click fallback still works.
  */
 
 @Epic("Advanced Selenium Tests") // Group tests under an Epic for Allure reporting
@@ -97,5 +106,94 @@ public class DatePickerTests extends BaseTest {
 		// Assert that the selected date matches the expected value
 		Assert.assertEquals(actualFormattedValue, expectedFormattedValue, "Selected date should match expected past date.");
 	}
+	
+	// ----------------------
+	// Test: Selecting a Distant Date
+	// ----------------------
+	@Story("Select a date years away")
+	@Test(description = "Select December 15, 2036 from the datepicker within a fixed command budget")
+	@Severity(SeverityLevel.NORMAL)
+	@Description("Selects a date ten years ahead and validates the input field; the month jump must not cost one click per month.")
+	@CommandBudget(maxCommands = 12) // five element actions, each with its lookup, plus headroom
+	public void selectDistantDateTest() throws InterruptedException {
+
+		// Initialize the DatePickerPage object with driver and JavascriptExecutor
+		dp = new DatePickerPage(driver, js);
+		
+		// Scroll to the datepicker and open the calendar popup
+		dp.scrollToDatePicker();
+		dp.click_input_datepicker();
+		
+		// Select a date well over a hundred months away
+		dp.selectDate("December", "15", "2036");
+		
+        // Pause to visually observe the demo
+		pauseForDemo();
+		
+		// Assert that the selected date matches the expected value
+		Assert.assertEquals(dp.getSelectedDate(), "12/15/2036", "Selected date should match expected distant date.");
+	}
+	
+	// ----------------------
+	// Test: Month Jump Leaves the Input Alone
+	// ----------------------
+	@Story("Select a date years away")
+	@Test(description = "Jump the real jQuery UI datepicker six years ahead without changing the input field")
+	@Severity(SeverityLevel.NORMAL)
+	@Description("Selects a date, reopens the calendar and jumps to a month six years later through jQuery UI's month navigation, then validates the input still holds the selected date. Needs the live page's jQuery UI widget; skipped against the local replica.")
+	public void monthJumpKeepsSelectedDateTest() throws InterruptedException {
+
+		// Initialize the DatePickerPage object with driver and JavascriptExecutor
+		dp = new DatePickerPage(driver, js);
+		
+		// Select a date first, so the input has a value to keep
+		dp.scrollToDatePicker();
+		dp.click_input_datepicker();
+		dp.selectDate("March", "10", "2030");
+		
+		// Reopen the calendar and jump to another month without picking a day
+		dp.click_input_datepicker();
+		String mode = dp.showMonth("December", "2036");
+		if (!"api".equals(mode)) {
+			throw new SkipException("The page has no jQuery UI datepicker (navigation mode: " + mode + "); this test needs the real widget");
+		}
+		
+        // Pause to visually observe the demo
+		pauseForDemo();
+		
+		// Assert that the jump did not write a date into the input
+		Assert.assertEquals(dp.getSelectedDate(), "03/10/2030", "Jumping to another month should not change the selected date.");
+	}
+	
+	// ----------------------
+	// Test: Click-by-Click Fallback
+	// ----------------------
+	@Story("Select a past date")
+	@Test(description = "Select a date three months back by clicking through the months one at a time")
+	@Severity(SeverityLevel.MINOR)
+	@Description("Selects a date three months in the past with the month-by-month click navigation selectDate falls back to, and validates the formatted date value in the input field.")
+	public void selectDateByClickingTest() throws InterruptedException {
+
+		// Initialize the DatePickerPage object with driver and JavascriptExecutor
+		dp = new DatePickerPage(driver, js);
+		
+		// A date near the month the calendar opens on, so only a few clicks are needed
+		LocalDate target = LocalDate.now().minusMonths(3).withDayOfMonth(15);
+		String expectedMonth = target.getMonth().getDisplayName(TextStyle.FULL, Locale.ENGLISH);
+		String expectedFormattedValue = target.format(DateTimeFormatter.ofPattern("MM/dd/yyyy"));
+		
+		// Scroll to the datepicker and open the calendar popup
+		dp.scrollToDatePicker();
+		dp.click_input_datepicker();
+		
+		// Select the date with the click-by-click navigation
+		dp.selectDateByClicking(expectedMonth, "15", String.valueOf(target.getYear()));
+		
+        // Pause to visually observe the demo
+		pauseForDemo();
+		
+		// Assert that the selected date matches the expected value
+		Assert.assertEquals(dp.getSelectedDate(), expectedFormattedValue, "Selected date should match the date reached by clicking.");
+	}
 
 }
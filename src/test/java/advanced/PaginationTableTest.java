@@ -5,6 +5,8 @@ import org.testng.Assert;
 import org.testng.annotations.Test;
 import base.BaseTest;
 import pages.PaginationTablePage;
+import utils.CommandBudget;
+import utils.TableAssert;
 import io.qameta.allure.Description;
 import io.qameta.allure.Epic;
 import io.qameta.allure.Feature;
@@ -24,6 +26,38 @@ import io.qameta.allure.SeverityLevel;
 public class PaginationTableTest extends BaseTest {
 
     PaginationTablePage pp; // Page object for pagination table actions
+
+    // Expected table data across all pages (pages -> rows -> columns)
+    private static final List<List<List<String>>> EXPECTED_TABLE_DATA = List.of(
+        List.of(
+            List.of("1", "Smartphone", "$10.99"),
+            List.of("2", "Laptop", "$19.99"),
+            List.of("3", "Tablet", "$5.99"),
+            List.of("4", "Smartwatch", "$7.99"),
+            List.of("5", "Wireless Earbuds", "$8.99")
+        ),
+        List.of(
+            List.of("6", "Bluetooth Speaker", "$9.99"),
+            List.of("7", "Television", "$20.99"),
+            List.of("8", "Action Camera", "$15.99"),
+            List.of("9", "Gaming Console", "$5.99"),
+            List.of("10", "Digital Camera", "$16.99")
+        ),
+        List.of(
+            List.of("11", "Smart Home Hub", "$20.99"),
+            List.of("12", "Router", "$24.99"),
+            List.of("13", "Portable Charger", "$30.99"),
+            List.of("14", "Fitness Tracker", "$19.99"),
+            List.of("15", "Desktop Computer", "$2.99")
+        ),
+        List.of(
+            List.of("16", "E-Reader", "$10.99"),
+            List.of("17", "VR Headset", "$11.99"),
+            List.of("18", "Streaming Device", "$13.99"),
+            List.of("19", "Soundbar", "$16.99"),
+            List.of("20", "Wireless Mouse 20", "$17.99")
+        )
+    );
     
     // ----------------------
     // Test: Validate Paginated Table Data
@@ -44,39 +78,31 @@ public class PaginationTableTest extends BaseTest {
         // The data is stored as a 3D list: pages -> rows -> columns
         List<List<List<String>>> actualData = pp.beginPagination();
 
-        // Define the expected table data across all pages
-        List<List<List<String>>> expectedTableData = List.of(
-            List.of(
-                List.of("1", "Smartphone", "$10.99"),
-                List.of("2", "Laptop", "$19.99"),
-                List.of("3", "Tablet", "$5.99"),
-                List.of("4", "Smartwatch", "$7.99"),
-                List.of("5", "Wireless Earbuds", "$8.99")
-            ),
-            List.of(
-                List.of("6", "Bluetooth Speaker", "$9.99"),
-                List.of("7", "Television", "$20.99"),
-                List.of("8", "Action Camera", "$15.99"),
-                List.of("9", "Gaming Console", "$5.99"),
-                List.of("10", "Digital Camera", "$16.99")
-            ),
-            List.of(
-                List.of("11", "Smart Home Hub", "$20.99"),
-                List.of("12", "Router", "$24.99"),
-                List.of("13", "Portable Charger", "$30.99"),
-                List.of("14", "Fitness Tracker", "$19.99"),
-                List.of("15", "Desktop Computer", "$2.99")
-            ),
-            List.of(
-                List.of("16", "E-Reader", "$10.99"),
-                List.of("17", "VR Headset", "$11.99"),
-                List.of("18", "Streaming Device", "$13.99"),
-                List.of("19", "Soundbar", "$16.99"),
-                List.of("20", "Wireless Mouse 20", "$17.99")
-            )
-        );
-
         // Assert that the actual table data matches the expected data
-        Assert.assertEquals(actualData, expectedTableData, "The table data across all pages should match the expected values.");
+        TableAssert.assertPagesEqual(actualData, EXPECTED_TABLE_DATA, "The table data across all pages should match the expected values.");
+    }
+
+    // ----------------------
+    // Test: Read All Pages in a Single Script
+    // ----------------------
+    @Story("Read all pages of a paginated table in one script call") // Describe the user story
+    @Test(description = "Read all pages of the paginated table with a single JavaScript call and validate data")
+    @Severity(SeverityLevel.MINOR)
+    @Description("Reads every page of the pagination table in one in-browser script and validates the dataset and per-page timings.")
+    @CommandBudget(maxCommands = 5) // locate + scroll + one read script, plus headroom
+    public void testPaginationTableDataSingleScript() {
+
+        // Initialize the PaginationTablePage object with driver and JavascriptExecutor
+        pp = new PaginationTablePage(driver, js);
+
+        // Scroll the table into view to ensure it's interactable
+        pp.scrollToPaginationTable();
+
+        // Retrieve all pages in one round trip, without touching the checkboxes
+        List<List<List<String>>> actualData = pp.readAllPagesInSingleScript(false);
+
+        // Assert that the data matches and every page was timed
+        TableAssert.assertPagesEqual(actualData, EXPECTED_TABLE_DATA, "The single-script read should match the expected values.");
+        Assert.assertEquals(pp.getPageTimingsMillis().size(), EXPECTED_TABLE_DATA.size(), "Each page should have a timing entry.");
     }
 }
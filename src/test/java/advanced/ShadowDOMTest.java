@@ -1,9 +1,11 @@
 package advanced;
 
+import org.openqa.selenium.WebElement;
 import org.testng.Assert;
 import org.testng.annotations.Test;
 import base.BaseTest;
 import pages.ShadowDOMPage;
+import utils.CommandBudget;
 import io.qameta.allure.Description;
 import io.qameta.allure.Epic;
 import io.qameta.allure.Feature;
@@ -15,7 +17,9 @@ import io.qameta.allure.SeverityLevel;
  * ShadowDOMTest contains Selenium tests for interacting with Shadow DOM elements.
  * 
  * Each test validates a different element or interaction inside a Shadow DOM structure,
- * including text validation, input typing, checkbox selection, and file input visibility.
+ * including text validation, input typing, checkbox selection, and file input visibility,
+ * checks that the page's shadow elements are resolved together in one script, and
+ * that cached shadow hosts are reused while attached and dropped once re-rendered.
  */
 
 @Epic("Advanced Selenium Tests")
@@ -183,4 +187,112 @@ public class ShadowDOMTest extends BaseTest {
         Assert.assertTrue(sp.isFileInputElementVisible(),
                 "File input element should be visible");
     }
+
+    /**
+     * Test 7: Validate Shadow DOM fields are resolved together and cached
+     * 
+     * Objective: Read three different shadow elements; all of them must be resolved by a single script
+     */
+    @Story("Validate Shadow DOM lookup cost")
+    @Test(description = "Validate @FindByShadow fields are resolved in one script and reused")
+    @Severity(SeverityLevel.MINOR)
+    @Description("Reads the <span>, the nested <div> and the <a> link within a command budget and verifies one script resolved all of them.")
+    @CommandBudget(maxCommands = 8) // scroll (2) + one shadow query + three getText calls, plus headroom
+    public void validateShadowFieldsResolvedInOneQuery() throws InterruptedException {
+    	
+        // Initialize the ShadowDOMPage object with driver and JavascriptExecutor
+        sp = new ShadowDOMPage(driver, js);
+        
+        // Scroll to the Shadow DOM
+        sp.scrollToShadowDOM();
+
+        // Read three shadow elements; the first read resolves every @FindByShadow field of the page
+        Assert.assertTrue(sp.getShadowHostSpanText().contains("Mobiles"), "<span> text should contain 'Mobiles'");
+        Assert.assertTrue(sp.getNestedShadowHostDivText().contains("Laptops"), "Nested <div> text should contain 'Laptops'");
+        Assert.assertTrue(sp.getShadowHostLinkText().contains("Blog"), "<a> link text should contain 'Blog'");
+
+        // Pause to visually observe the demo
+        pauseForDemo();
+
+        // Verify a single script resolved all shadow fields
+        Assert.assertEquals(sp.getLocatorCache().getShadowQueries(), 1, "All shadow fields should be resolved in one script");
+    }
+
+    /**
+     * Test 8: Validate ad-hoc Shadow DOM lookups reuse the hosts found for the fields
+     * 
+     * Objective: After the fields are resolved, a lookup by path must query the cached shadow host directly
+     */
+    @Story("Validate Shadow DOM lookup cost")
+    @Test(description = "Validate a lookup by shadow path reuses the shadow host cached for the @FindByShadow fields")
+    @Severity(SeverityLevel.MINOR)
+    @Description("Reads the <span> field, then locates the <a> link by path and verifies it was answered from the cached shadow host.")
+    @CommandBudget(maxCommands = 8) // scroll (2) + one shadow query + getText + one cached-host query + getText, plus headroom
+    public void validateShadowPathLookupUsesCachedHost() throws InterruptedException {
+    	
+        // Initialize the ShadowDOMPage object with driver and JavascriptExecutor
+        sp = new ShadowDOMPage(driver, js);
+        
+        // Scroll to the Shadow DOM
+        sp.scrollToShadowDOM();
+
+        // Reading a field resolves every @FindByShadow field and caches their shadow hosts
+        Assert.assertTrue(sp.getShadowHostSpanText().contains("Mobiles"), "<span> text should contain 'Mobiles'");
+
+        // Locate the link by path; div#shadow_host is already cached
+        WebElement link = sp.locateShadowDOMElement(driver, "div#shadow_host", "a");
+        Assert.assertTrue(link.getText().contains("Blog"), "<a> link text should contain 'Blog'");
+
+        // Pause to visually observe the demo
+        pauseForDemo();
+
+        // Verify the lookup was answered from the cached host
+        Assert.assertEquals(sp.getShadowRootCache().getHits(), 1, "The shadow host should come from the cache");
+        Assert.assertEquals(sp.getShadowRootCache().getMisses(), 0, "No shadow path should be resolved from the document again");
+    }
+
+    /**
+     * Test 9: Validate a re-rendered shadow host is dropped from the cache
+     * 
+     * Objective: After the page replaces the shadow host, a lookup must notice the cached host is detached and resolve the path again
+     */
+    @Story("Validate Shadow DOM lookup cost")
+    @Test(description = "Validate the shadow root cache drops a detached shadow host and finds the re-rendered one")
+    @Severity(SeverityLevel.NORMAL)
+    @Description("Locates the <span> by path, replaces the shadow host with a fresh copy, locates the <span> again and verifies it comes from the new host.")
+    @CommandBudget(maxCommands = 10) // scroll (2) + lookup + re-render + detached check and lookup (2) + getText + host check, plus headroom
+    public void validateDetachedShadowHostIsResolvedAgain() throws InterruptedException {
+    	
+        // Initialize the ShadowDOMPage object with driver and JavascriptExecutor
+        sp = new ShadowDOMPage(driver, js);
+        
+        // Scroll to the Shadow DOM
+        sp.scrollToShadowDOM();
+
+        // The first lookup resolves the path from the document and caches div#shadow_host
+        sp.locateShadowDOMElement(driver, "div#shadow_host", "span.info");
+
+        // Re-render: replace the shadow host with a new element holding the same shadow content
+        js.executeScript(
+                "var old = document.getElementById('shadow_host');"
+              + "var fresh = document.createElement('div');"
+              + "fresh.id = 'shadow_host';"
+              + "fresh.attachShadow({ mode: 'open' }).innerHTML = old.shadowRoot.innerHTML;"
+              + "old.replaceWith(fresh);");
+
+        // Look up again; the cached host is detached, so the path is resolved from the document
+        WebElement span = sp.locateShadowDOMElement(driver, "div#shadow_host", "span.info");
+        Assert.assertTrue(span.getText().contains("Mobiles"), "<span> text should contain 'Mobiles'");
+        Assert.assertEquals(js.executeScript(
+                "return arguments[0].getRootNode().host === document.getElementById('shadow_host');", span), true,
+                "<span> should be found inside the re-rendered shadow host");
+
+        // Pause to visually observe the demo
+        pauseForDemo();
+
+        // Verify the detached host was dropped and the path resolved twice
+        Assert.assertEquals(sp.getShadowRootCache().getInvalidations(), 1, "The detached shadow host should be dropped");
+        Assert.assertEquals(sp.getShadowRootCache().getMisses(), 2, "The path should be resolved from the document again");
+        Assert.assertEquals(sp.getShadowRootCache().getHits(), 0, "The detached shadow host should not answer the lookup");
+    }
 }
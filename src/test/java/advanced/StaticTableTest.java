@@ -1,10 +1,16 @@
 package advanced;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
 import org.testng.Assert;
 import org.testng.annotations.Test;
 import base.BaseTest;
 import pages.StaticTablePages;
+import utils.CommandBudget;
+import utils.TableAssert;
 import io.qameta.allure.Description;
 import io.qameta.allure.Epic;
 import io.qameta.allure.Feature;
@@ -54,10 +60,126 @@ public class StaticTableTest extends BaseTest {
 		// ------------------------------------------
 		// Validation: Compare actual vs. expected table data
 		// ------------------------------------------
-		Assert.assertEquals(
+		TableAssert.assertTableEquals(
 			actualTableData, 
 			expectedTableData, 
 			"Static table data does not match the expected values."
 		);
 	}
+	
+	// ------------------------------------------
+	// Test: Bulk Read Matches Cell-by-Cell Read
+	// ------------------------------------------
+	@Story("Read the table in one script call and compare with the per-cell read") // Describe the user story
+	@Test(description = "Verify the single-script table read returns the same data as the per-cell read")
+	@Severity(SeverityLevel.MINOR)
+	@Description("Reads the static table with the bulk JavaScript read and with the per-cell fallback, and validates both return identical data.")
+	public void bulkReadMatchesCellReadTest() {
+		
+		// Initialize the StaticTablePages object with WebDriver
+		sp = new StaticTablePages(driver);
+		
+		// Read the table both ways
+		List<List<String>> bulkTableData = sp.readAllDataFromStaticTable();
+		List<List<String>> cellTableData = sp.readAllDataFromStaticTableByCell();
+		
+		// ------------------------------------------
+		// Validation: Both read modes must agree
+		// ------------------------------------------
+		Assert.assertEquals(
+			bulkTableData, 
+			cellTableData, 
+			"Bulk table read does not match the cell-by-cell read."
+		);
+	}
+	
+	// ------------------------------------------
+	// Test: Stream Table Rows in Batches
+	// ------------------------------------------
+	@Story("Stream table rows lazily in small batches") // Describe the user story
+	@Test(description = "Stream the static table in batches and validate the rows")
+	@Severity(SeverityLevel.MINOR)
+	@Description("Streams the static table two rows per round trip and validates the collected rows and a short-circuiting check.")
+	@CommandBudget(maxCommands = 8) // four batches of two rows, one full read, one short-circuited stream
+	public void streamStaticTableRowsTest() {
+		
+		// Initialize the StaticTablePages object with WebDriver
+		sp = new StaticTablePages(driver);
+		
+		// Collect the streamed rows, fetched two at a time
+		List<List<String>> streamedTableData = sp.streamRows("//table[@name='BookTable']//tr", 2)
+				.collect(Collectors.toList());
+		
+		// ------------------------------------------
+		// Validation: Streamed rows match the full read, and short-circuiting works
+		// ------------------------------------------
+		Assert.assertEquals(
+			streamedTableData, 
+			sp.readAllDataFromStaticTable(), 
+			"Streamed table data does not match the full table read."
+		);
+		Assert.assertTrue(
+			sp.streamRowsFromStaticTable().anyMatch(row -> row.get(1).equals("Mukesh")),
+			"Streamed rows should contain an entry by Mukesh."
+		);
+	}
+	
+	// ------------------------------------------
+	// Test: Batch Cost Along a Large Table
+	// ------------------------------------------
+	@Story("Stream table rows lazily in small batches") // Describe the user story
+	@Test(description = "Stream a 20,000-row table and verify late batches cost no more than early ones")
+	@Severity(SeverityLevel.MINOR)
+	@Description("Adds a 20,000-row table to the page, streams it in batches of 500 and compares the time of the last batches with the first ones.")
+	public void streamedBatchCostDoesNotGrowWithOffsetTest() {
+		
+		// Initialize the StaticTablePages object with WebDriver
+		sp = new StaticTablePages(driver);
+		
+		// Add a large table to the page (header row plus 20,000 data rows)
+		int rowCount = 20000;
+		int batchSize = 500;
+		js.executeScript(
+				"var table = document.createElement('table');"
+			  + "table.id = 'largeTable';"
+			  + "var html = '<tr><th>Id</th><th>Name</th><th>Value</th></tr>';"
+			  + "for (var i = 1; i <= arguments[0]; i++) { html += '<tr><td>' + i + '</td><td>Row ' + i + '</td><td>' + (i * 7) + '</td></tr>'; }"
+			  + "table.innerHTML = html;"
+			  + "document.body.appendChild(table);", rowCount);
+		
+		// Stream the table, noting when the first row of each batch arrives
+		List<Long> batchStarts = new ArrayList<>();
+		AtomicInteger streamed = new AtomicInteger();
+		long rows = sp.streamRows("//table[@id='largeTable']//tr", batchSize)
+				.peek(row -> {
+					if (streamed.getAndIncrement() % batchSize == 0) {
+						batchStarts.add(System.nanoTime());
+					}
+				})
+				.count();
+		batchStarts.add(System.nanoTime());
+		
+		// Time of each batch after the first (the first also locates the table)
+		List<Long> batchNanos = new ArrayList<>();
+		for (int i = 1; i < batchStarts.size(); i++) {
+			batchNanos.add(batchStarts.get(i) - batchStarts.get(i - 1));
+		}
+		int window = 5;
+		long early = median(batchNanos.subList(1, 1 + window));
+		long late = median(batchNanos.subList(batchNanos.size() - window, batchNanos.size()));
+		
+		// ------------------------------------------
+		// Validation: every row was streamed, and late batches are not slower than early ones
+		// ------------------------------------------
+		Assert.assertEquals(rows, rowCount, "Every data row should be streamed.");
+		Assert.assertTrue(late <= 3 * early + 25_000_000L,
+				"Batches at the end of the table took " + late / 1_000_000 + " ms, at the start "
+				+ early / 1_000_000 + " ms; batch cost should not grow with the row offset.");
+	}
+	
+	private static long median(List<Long> values) {
+		List<Long> sorted = new ArrayList<>(values);
+		Collections.sort(sorted);
+		return sorted.get(sorted.size() / 2);
+	}
 }
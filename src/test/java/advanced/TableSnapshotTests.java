@@ -0,0 +1,123 @@
+package advanced;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+import io.qameta.allure.Description;
+import io.qameta.allure.Epic;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Severity;
+import io.qameta.allure.SeverityLevel;
+import io.qameta.allure.Story;
+import utils.TableAssert;
+import utils.TableSnapshot;
+
+/**
+ * TableSnapshotTests checks how table comparisons report mismatches, on
+ * in-memory copies of the static book table, so it needs no browser.
+ *
+ * The class covers:
+ * 1. A changed value in a numeric column (stored as primitive numbers).
+ * 2. A changed value in a dictionary-encoded text column.
+ * 3. Several differences: the one in the lowest row is reported.
+ * 4. A missing row.
+ * 5. TableAssert failing with the coordinates and both values.
+ */
+
+@Epic("Advanced Selenium Tests")
+@Feature("Static Table Handling Module")
+public class TableSnapshotTests {
+
+	@Story("Report the first differing cell")
+	@Test(description = "A changed price is reported at its row and column")
+	@Severity(SeverityLevel.NORMAL)
+	@Description("Changes one price in a numeric column and expects the difference at that cell, with both values.")
+	public void numericColumnMismatchTest() {
+
+		List<List<String>> actual = books();
+		actual.get(3).set(3, "3001");
+
+		Assert.assertTrue(TableSnapshot.of(actual).isNumericColumn(3), "Prices should be stored as numbers");
+		assertDifference(TableSnapshot.of(books()).firstDifference(TableSnapshot.of(actual)), 3, 3, "3000", "3001");
+	}
+
+	@Story("Report the first differing cell")
+	@Test(description = "A changed author is reported at its row and column")
+	@Severity(SeverityLevel.NORMAL)
+	@Description("Replaces one author with a later author of the same column, so both dictionaries match and only the codes differ, then with a new author, and expects the difference at that cell both times.")
+	public void dictionaryColumnMismatchTest() {
+
+		List<List<String>> actual = books();
+		actual.get(3).set(1, "Amod");
+
+		Assert.assertFalse(TableSnapshot.of(actual).isNumericColumn(1), "Authors should be stored in a dictionary");
+		assertDifference(TableSnapshot.of(books()).firstDifference(TableSnapshot.of(actual)), 3, 1, "Mukesh", "Amod");
+
+		// An author the expected table does not know about is found as well
+		actual.get(3).set(1, "Rahul");
+		assertDifference(TableSnapshot.of(books()).firstDifference(TableSnapshot.of(actual)), 3, 1, "Mukesh", "Rahul");
+	}
+
+	@Story("Report the first differing cell")
+	@Test(description = "Of several differences, the one in the lowest row is reported")
+	@Severity(SeverityLevel.NORMAL)
+	@Description("Changes a late row in the first column and an earlier row in the last column, and expects the earlier row to be reported.")
+	public void lowestRowIsReportedTest() {
+
+		List<List<String>> actual = books();
+		actual.get(5).set(0, "Master In TypeScript");
+		actual.get(2).set(3, "350");
+
+		assertDifference(TableSnapshot.of(books()).firstDifference(TableSnapshot.of(actual)), 2, 3, "300", "350");
+	}
+
+	@Story("Report the first differing cell")
+	@Test(description = "A missing row is reported at its first cell")
+	@Severity(SeverityLevel.NORMAL)
+	@Description("Drops the last row and expects a difference at its first cell, with no actual value.")
+	public void missingRowTest() {
+
+		List<List<String>> actual = books();
+		actual.remove(5);
+
+		assertDifference(TableSnapshot.of(books()).firstDifference(TableSnapshot.of(actual)), 5, 0, "Master In JS", null);
+		Assert.assertNull(TableSnapshot.of(books()).firstDifference(TableSnapshot.of(books())), "Identical tables should not differ");
+	}
+
+	@Story("Report the first differing cell")
+	@Test(description = "TableAssert fails with the differing cell's coordinates and values")
+	@Severity(SeverityLevel.NORMAL)
+	@Description("Compares tables that differ in one price through TableAssert and checks the failure message.")
+	public void assertTableEqualsMessageTest() {
+
+		List<List<String>> actual = books();
+		actual.get(1).set(3, "550");
+
+		AssertionError error = Assert.expectThrows(AssertionError.class,
+				() -> TableAssert.assertTableEquals(actual, books(), "Static table data does not match."));
+		Assert.assertEquals(error.getMessage(),
+				"Static table data does not match. First difference at row 1, column 3: expected [500] but found [550]");
+	}
+
+	private static void assertDifference(TableSnapshot.CellDifference difference, int row, int column,
+			String expected, String actual) {
+		Assert.assertNotNull(difference, "The tables should differ");
+		Assert.assertEquals(difference.getRow(), row, "Row of the first difference");
+		Assert.assertEquals(difference.getColumn(), column, "Column of the first difference");
+		Assert.assertEquals(difference.getExpected(), expected, "Expected value at the first difference");
+		Assert.assertEquals(difference.getActual(), actual, "Actual value at the first difference");
+	}
+
+	/** A modifiable copy of the static book table */
+	private static List<List<String>> books() {
+		List<List<String>> rows = new ArrayList<>();
+		rows.add(new ArrayList<>(List.of("Learn Selenium", "Amit", "Selenium", "300")));
+		rows.add(new ArrayList<>(List.of("Learn Java", "Mukesh", "Java", "500")));
+		rows.add(new ArrayList<>(List.of("Learn JS", "Animesh", "Javascript", "300")));
+		rows.add(new ArrayList<>(List.of("Master In Selenium", "Mukesh", "Selenium", "3000")));
+		rows.add(new ArrayList<>(List.of("Master In Java", "Amod", "JAVA", "2000")));
+		rows.add(new ArrayList<>(List.of("Master In JS", "Amit", "Javascript", "1000")));
+		return rows;
+	}
+}
@@ -1,99 +1,155 @@
 package base;
 
+import java.lang.reflect.Method;
 import java.time.Duration;
 import org.openqa.selenium.JavascriptExecutor;
 import org.openqa.selenium.TakesScreenshot;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
-import org.openqa.selenium.chrome.ChromeDriver;
-import org.openqa.selenium.edge.EdgeDriver;
-import org.openqa.selenium.firefox.FirefoxDriver;
 import org.openqa.selenium.interactions.Actions;
 import org.openqa.selenium.support.ui.WebDriverWait;
+import org.testng.ITestContext;
 import org.testng.annotations.AfterMethod;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Parameters;
+import utils.CommandMetrics;
 import utils.ConfigReader;
+import utils.FrameContext;
+import utils.SmartWait;
 
 public class BaseTest {
 
     // -------------------------------------------------------
     // WebDriver & Utilities
     // -------------------------------------------------------
-    public static WebDriver driver;
-    public static JavascriptExecutor js;
-    public static TakesScreenshot ts;
+    // Instance fields: each test class instance runs on a single worker thread
+    // under parallel="tests" or parallel="classes", so its browser is never shared.
+    public WebDriver driver;
+    public JavascriptExecutor js;
+    public TakesScreenshot ts;
     public Actions act;
     public WebDriverWait wait;
 
+    // Reuse scope the driver was leased for (see DriverPool#scopeKey)
+    private String sessionScope;
+
+    // Undecorated driver leased from the pool; driver may wrap it to record commands
+    private WebDriver leasedDriver;
+
+    // Record every WebDriver command per test and page-object method (see CommandMetrics)
+    private static final boolean COMMAND_METRICS = ConfigReader.getBoolean("commandMetrics", true);
+
+    // Driver leased by the current thread, for helpers that have no test instance
+    private static final ThreadLocal<WebDriver> currentDriver = new ThreadLocal<>();
+
+    /** Returns the driver leased by the calling thread, or null outside a test method */
+    public static WebDriver getDriver() {
+        return currentDriver.get();
+    }
+
     // -------------------------------------------------------
     // Setup (Runs Before Each Test Method)
     // -------------------------------------------------------
     @Parameters({"url"})
     @BeforeMethod
-    public void setup(String url) {
+    public void setup(String url, ITestContext context, Method testMethod) throws InterruptedException {
 
         // Load configuration values
-        String browser = ConfigReader.get("browser");
         int implicitWait = Integer.parseInt(ConfigReader.get("implicitWait"));
         int explicitWait  = Integer.parseInt(ConfigReader.get("explicitWait"));
         String windowMaximized = ConfigReader.get("windowMaximize");
         int zoom = Integer.parseInt(ConfigReader.get("zoomLevel"));
 
-        // Initialize browser
-        switch (browser.toLowerCase()) {
-            case "firefox":
-                driver = new FirefoxDriver();
-                break;
-            case "edge":
-                driver = new EdgeDriver();
-                break;
-            case "chrome":
-            default:
-                driver = new ChromeDriver();
-                break;
-        }
+        // Lease a browser from the pool (blocks while every session is in use);
+        // with session reuse enabled this is a warm, already reset browser
+        sessionScope = DriverPool.scopeKey(context.getSuite().getName(), context.getName(), getClass().getName());
+        leasedDriver = DriverPool.getInstance().acquire(sessionScope);
+        try {
+            driver = leasedDriver;
+            if (COMMAND_METRICS) {
+                CommandMetrics.getInstance().startTest(getClass().getName() + "." + testMethod.getName());
+                driver = CommandMetrics.decorate(leasedDriver);
+            }
+            currentDriver.set(driver);
         
         
-     // Maximize window if enabled in config
-        if (windowMaximized != null && windowMaximized.equalsIgnoreCase("true")) {
-            driver.manage().window().maximize();
-        }
+            // Maximize window if enabled in config (sessions launched with a fixed window size keep it)
+            if (windowMaximized != null && windowMaximized.equalsIgnoreCase("true") && !DriverFactory.hasFixedWindowSize()) {
+                driver.manage().window().maximize();
+            }
 
-        // Browser settings
-        driver.manage().timeouts().implicitlyWait(Duration.ofSeconds(implicitWait));
-        driver.get(url);
+            // Browser settings
+            driver.manage().timeouts().implicitlyWait(Duration.ofSeconds(implicitWait));
+            driver.get(url);
+            // A reused session may have been left inside a frame; loading the page puts it back on top
+            FrameContext.of(driver).markTopLevel();
 
-        // Core utilities
-        js = (JavascriptExecutor) driver;
-        ts = (TakesScreenshot) driver;
-        act = new Actions(driver);
-        wait = new WebDriverWait(driver, Duration.ofSeconds(explicitWait));
+            // Core utilities
+            js = (JavascriptExecutor) driver;
+            ts = (TakesScreenshot) driver;
+            act = new Actions(driver);
+            wait = SmartWait.webDriverWait(driver, Duration.ofSeconds(explicitWait));
 
-        // Apply zoom level from config
-        js.executeScript("document.body.style.zoom='" + zoom + "%';");
+            // Apply zoom level from config
+            js.executeScript("document.body.style.zoom='" + zoom + "%';");
+        } catch (RuntimeException | Error e) {
+            // Hand the browser and its pool lease back now, so a failing page cannot exhaust the pool;
+            // tearDown is safe to run again afterwards
+            tearDown();
+            throw e;
+        }
     }
 
     // -------------------------------------------------------
     // Utility Methods
     // -------------------------------------------------------
+    // Visual aids only run in the "demo" execution profile; in "throughput" they are no-ops
+    private static final boolean DEMO_PROFILE = ConfigReader.isDemoProfile();
+    private static final long DEMO_PAUSE_MILLIS = ConfigReader.getInt("demoPauseMillis", 3000);
+
+    // Time the current thread has spent in pauseForDemo, left out of wall-time budgets
+    private static final ThreadLocal<Long> demoPauseNanos = ThreadLocal.withInitial(() -> 0L);
+
     public static void pauseForDemo() throws InterruptedException {
-        Thread.sleep(3000);
+        if (!DEMO_PROFILE) {
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            Thread.sleep(DEMO_PAUSE_MILLIS);
+        } finally {
+            demoPauseNanos.set(demoPauseNanos.get() + System.nanoTime() - start);
+        }
+    }
+
+    /** Total time the calling thread has spent in pauseForDemo, in milliseconds */
+    public static long getDemoPauseMillis() {
+        return demoPauseNanos.get() / 1_000_000;
     }
 
     public static void highlightElement(JavascriptExecutor js, WebElement element) {
-        js.executeScript(
+        if (!DEMO_PROFILE) {
+            return;
+        }
+        // Highlighting is a visual aid, so it does not count towards command metrics or budgets
+        CommandMetrics.getInstance().unmetered(() -> js.executeScript(
                 "arguments[0].setAttribute('style', arguments[1]);",
                 element,
                 "border: 2px solid red; background: yellow;"
-        );
+        ));
     }
 
     // -------------------------------------------------------
     // Tear Down (Runs After Each Test Method)
     // -------------------------------------------------------
-    @AfterMethod
+    @AfterMethod(alwaysRun = true)
     public void tearDown() {
-        driver.quit();
+        currentDriver.remove();
+        if (COMMAND_METRICS) {
+            CommandMetrics.getInstance().endTest();
+        }
+        DriverPool.getInstance().release(sessionScope, leasedDriver);
+        leasedDriver = null;
+        driver = null;
     }
 }
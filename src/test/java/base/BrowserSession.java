@@ -0,0 +1,112 @@
+package base;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.NoAlertPresentException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+
+/**
+ * BrowserSession contains the health check and state reset used when a
+ * browser session is handed from one test method to the next.
+ */
+public class BrowserSession {
+
+    // Window each session was launched with; reset keeps this one open
+    private static final Map<WebDriver, String> ORIGINAL_WINDOWS = Collections.synchronizedMap(new WeakHashMap<>());
+
+    private BrowserSession() {
+    }
+
+    /**
+     * Records the window a freshly launched session starts with, so a later
+     * reset keeps that window rather than a popup opened by a test.
+     *
+     * @return The same driver, for chaining after creation
+     */
+    public static WebDriver started(WebDriver driver) {
+        try {
+            ORIGINAL_WINDOWS.put(driver, driver.getWindowHandle());
+        } catch (WebDriverException e) {
+            // Left unrecorded; reset then keeps whichever window is still open
+        }
+        return driver;
+    }
+
+    // -------------------------------------------------------
+    // Health Check
+    // -------------------------------------------------------
+
+    /**
+     * Checks that the browser is still alive and answering commands.
+     *
+     * @return true if the session responded, false if it crashed or was closed
+     */
+    public static boolean isHealthy(WebDriver driver) {
+        try {
+            return !driver.getWindowHandles().isEmpty();
+        } catch (WebDriverException e) {
+            return false;
+        }
+    }
+
+    // -------------------------------------------------------
+    // State Reset
+    // -------------------------------------------------------
+
+    /**
+     * Returns a used session to a clean state: dismisses any open alert,
+     * closes extra windows, leaves frames, clears web storage and cookies,
+     * and parks the remaining window on about:blank.
+     *
+     * @return true if the session was reset and can be reused
+     */
+    public static boolean reset(WebDriver driver) {
+        try {
+            dismissAlert(driver);
+            closeExtraWindows(driver);
+            driver.switchTo().defaultContent();
+
+            // Storage is per origin, so it has to be cleared before leaving the page
+            ((JavascriptExecutor) driver).executeScript(
+                    "try { window.localStorage.clear(); window.sessionStorage.clear(); } catch (e) {}");
+            driver.manage().deleteAllCookies();
+
+            driver.get("about:blank");
+            return true;
+        } catch (WebDriverException e) {
+            return false;
+        }
+    }
+
+    /** Dismisses an alert left open by the previous test, if there is one */
+    private static void dismissAlert(WebDriver driver) {
+        try {
+            driver.switchTo().alert().dismiss();
+        } catch (NoAlertPresentException e) {
+            // Nothing to dismiss
+        }
+    }
+
+    /** Closes every window except the one the session started with and switches back to it */
+    private static void closeExtraWindows(WebDriver driver) {
+        Set<String> handles = driver.getWindowHandles();
+        String keep = ORIGINAL_WINDOWS.get(driver);
+        if (keep == null || !handles.contains(keep)) {
+            // The original window was closed by a test; keep any survivor and remember it from now on
+            keep = handles.iterator().next();
+            ORIGINAL_WINDOWS.put(driver, keep);
+        }
+
+        for (String handle : handles) {
+            if (!handle.equals(keep)) {
+                driver.switchTo().window(handle);
+                driver.close();
+            }
+        }
+        driver.switchTo().window(keep);
+    }
+}
@@ -0,0 +1,159 @@
+package base;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import org.openqa.selenium.PageLoadStrategy;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chrome.ChromeDriver;
+import org.openqa.selenium.chrome.ChromeOptions;
+import org.openqa.selenium.chromium.ChromiumDriver;
+import org.openqa.selenium.chromium.ChromiumOptions;
+import org.openqa.selenium.edge.EdgeDriver;
+import org.openqa.selenium.edge.EdgeOptions;
+import org.openqa.selenium.firefox.FirefoxDriver;
+import org.openqa.selenium.firefox.FirefoxOptions;
+import org.openqa.selenium.remote.AbstractDriverOptions;
+import utils.ConfigReader;
+
+/**
+ * DriverFactory creates new browser sessions for the browser configured
+ * in config.properties, with launch options taken from the same file:
+ *
+ * <ul>
+ *   <li>{@code headless}: true, false, or auto (headless unless the demo profile is active)</li>
+ *   <li>{@code pageLoadStrategy}: normal, eager or none</li>
+ *   <li>{@code windowSize}: fixed size such as 1920,1080 instead of maximizing</li>
+ *   <li>{@code disableImages} / {@code disableFonts}: skip loading images or web fonts</li>
+ *   <li>{@code chromeArguments}, {@code edgeArguments}, {@code firefoxArguments}:
+ *       extra command-line switches, separated by spaces</li>
+ * </ul>
+ */
+public class DriverFactory {
+
+    // Used for headless sessions when no windowSize is configured
+    private static final String DEFAULT_HEADLESS_WINDOW_SIZE = "1920,1080";
+
+    // Web font files blocked through the DevTools protocol when disableFonts=true
+    private static final List<String> FONT_URL_PATTERNS = Arrays.asList("*.woff", "*.woff2", "*.ttf", "*.otf", "*.eot");
+
+    private DriverFactory() {
+    }
+
+    // -------------------------------------------------------
+    // Browser Creation
+    // -------------------------------------------------------
+
+    /** Launches a new browser session for the configured browser (chrome by default) */
+    public static WebDriver createDriver() {
+        String browser = ConfigReader.get("browser");
+
+        switch (browser == null ? "chrome" : browser.toLowerCase()) {
+            case "firefox":
+                return new FirefoxDriver(firefoxOptions());
+            case "edge":
+                return blockFonts(new EdgeDriver(chromiumOptions(new EdgeOptions(), "edgeArguments")));
+            case "chrome":
+            default:
+                return blockFonts(new ChromeDriver(chromiumOptions(new ChromeOptions(), "chromeArguments")));
+        }
+    }
+
+    // -------------------------------------------------------
+    // Launch Settings
+    // -------------------------------------------------------
+
+    /** Whether new sessions run headless; "auto" means headless unless the demo profile is active */
+    public static boolean isHeadless() {
+        String headless = ConfigReader.get("headless");
+        if (headless == null || headless.isBlank() || headless.trim().equalsIgnoreCase("auto")) {
+            return !ConfigReader.isDemoProfile();
+        }
+        return Boolean.parseBoolean(headless.trim());
+    }
+
+    /**
+     * Whether sessions are launched with a fixed window size (a configured
+     * windowSize, or the headless default), in which case maximizing is skipped.
+     */
+    public static boolean hasFixedWindowSize() {
+        return windowSize() != null;
+    }
+
+    /** Configured "width,height", the headless default, or null to keep the browser's own size */
+    private static String windowSize() {
+        String size = ConfigReader.get("windowSize");
+        if (size != null && !size.isBlank()) {
+            return size.trim().replace('x', ',');
+        }
+        return isHeadless() ? DEFAULT_HEADLESS_WINDOW_SIZE : null;
+    }
+
+    private static String[] arguments(String key) {
+        String arguments = ConfigReader.get(key);
+        return arguments == null || arguments.isBlank() ? new String[0] : arguments.trim().split("\\s+");
+    }
+
+    private static void applyPageLoadStrategy(AbstractDriverOptions<?> options) {
+        String strategy = ConfigReader.get("pageLoadStrategy");
+        if (strategy != null && !strategy.isBlank()) {
+            PageLoadStrategy pageLoadStrategy = PageLoadStrategy.fromString(strategy.trim().toLowerCase());
+            if (pageLoadStrategy == null) {
+                throw new IllegalArgumentException("Unknown pageLoadStrategy \"" + strategy.trim()
+                        + "\" in config.properties; expected normal, eager or none");
+            }
+            options.setPageLoadStrategy(pageLoadStrategy);
+        }
+    }
+
+    // -------------------------------------------------------
+    // Browser Options
+    // -------------------------------------------------------
+
+    /** Options shared by Chrome and Edge, which are both Chromium-based */
+    private static <T extends ChromiumOptions<?>> T chromiumOptions(T options, String argumentsKey) {
+        applyPageLoadStrategy(options);
+
+        if (isHeadless()) {
+            options.addArguments("--headless=new");
+        }
+        if (windowSize() != null) {
+            options.addArguments("--window-size=" + windowSize());
+        }
+        if (ConfigReader.getBoolean("disableImages", false)) {
+            options.addArguments("--blink-settings=imagesEnabled=false");
+        }
+        options.addArguments(arguments(argumentsKey));
+        return options;
+    }
+
+    private static FirefoxOptions firefoxOptions() {
+        FirefoxOptions options = new FirefoxOptions();
+        applyPageLoadStrategy(options);
+
+        if (isHeadless()) {
+            options.addArguments("-headless");
+        }
+        if (windowSize() != null) {
+            String[] size = windowSize().split(",");
+            options.addArguments("--width=" + size[0].trim(), "--height=" + size[1].trim());
+        }
+        if (ConfigReader.getBoolean("disableImages", false)) {
+            options.addPreference("permissions.default.image", 2);
+        }
+        if (ConfigReader.getBoolean("disableFonts", false)) {
+            options.addPreference("gfx.downloadable_fonts.enabled", false);
+        }
+        options.addArguments(arguments("firefoxArguments"));
+        return options;
+    }
+
+    /** Chromium has no launch switch for web fonts, so block the font files over DevTools instead */
+    private static WebDriver blockFonts(ChromiumDriver driver) {
+        if (ConfigReader.getBoolean("disableFonts", false)) {
+            driver.executeCdpCommand("Network.enable", Map.of());
+            driver.executeCdpCommand("Network.setBlockedURLs", Map.of("urls", FONT_URL_PATTERNS));
+        }
+        return driver;
+    }
+}
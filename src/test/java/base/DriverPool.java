@@ -0,0 +1,327 @@
+package base;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import utils.ConfigReader;
+
+/**
+ * DriverPool hands out browser sessions to test threads.
+ *
+ * At most {@code driverPoolSize} sessions are leased at the same time; a thread
+ * asking for a driver while the pool is exhausted blocks until another thread
+ * releases one. A pool size of 0 (the default) means one session per CPU core.
+ *
+ * With {@code sessionReuse=true}, released sessions are reset (see
+ * {@link BrowserSession#reset(WebDriver)}) and kept warm for the next test
+ * method in the same scope instead of being quit. The scope is chosen with
+ * {@code sessionReuseScope}: {@code class}, {@code test} (a TestNG &lt;test&gt;
+ * block) or {@code suite}. Warm sessions that fail their health check are
+ * quit and replaced with a fresh browser.
+ *
+ * {@link #prewarm(int)} starts browsers in the background before any test
+ * asks for one; a lease with no warm session in its scope takes the oldest
+ * pre-warmed browser (waiting for it to finish starting if needed) before
+ * launching a new one.
+ */
+public class DriverPool {
+
+    private static final DriverPool INSTANCE = new DriverPool(
+            resolvePoolSize(),
+            ConfigReader.getBoolean("sessionReuse", false));
+
+    private final int size;
+    private final boolean reuseSessions;
+    private final Semaphore leases;
+
+    // Warm sessions waiting for the next lease, keyed by reuse scope (guarded by this)
+    private final Map<String, Deque<WebDriver>> idle = new HashMap<>();
+
+    // Browsers started ahead of demand, oldest first (guarded by this)
+    private final Deque<CompletableFuture<WebDriver>> prewarmed = new ArrayDeque<>();
+
+    // Sessions currently open, leased, idle or pre-warming (guarded by this)
+    private int openSessions;
+
+    // -------------------------------------------------------
+    // Construction
+    // -------------------------------------------------------
+    DriverPool(int size, boolean reuseSessions) {
+        this.size = size;
+        this.reuseSessions = reuseSessions;
+        this.leases = new Semaphore(size, true);
+    }
+
+    public static DriverPool getInstance() {
+        return INSTANCE;
+    }
+
+    /** Pool size from config.properties, falling back to the number of CPU cores */
+    public static int resolvePoolSize() {
+        int configured = ConfigReader.getInt("driverPoolSize", 0);
+        return configured > 0 ? configured : Runtime.getRuntime().availableProcessors();
+    }
+
+    /**
+     * Builds the reuse scope key for a test method, based on {@code sessionReuseScope}.
+     *
+     * @param suiteName Name of the running suite
+     * @param testName  Name of the TestNG &lt;test&gt; block
+     * @param className Fully qualified name of the test class
+     */
+    public static String scopeKey(String suiteName, String testName, String className) {
+        switch (reuseScope()) {
+            case "suite":
+                return suiteName;
+            case "class":
+                return suiteName + "/" + testName + "/" + className;
+            default:
+                return suiteName + "/" + testName;
+        }
+    }
+
+    /** Configured session reuse scope: "class", "test" (default) or "suite" */
+    public static String reuseScope() {
+        String scope = ConfigReader.get("sessionReuseScope");
+        if (scope == null || scope.isBlank()) {
+            return "test";
+        }
+        return scope.trim().toLowerCase();
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public boolean isReusingSessions() {
+        return reuseSessions;
+    }
+
+    // -------------------------------------------------------
+    // Leasing
+    // -------------------------------------------------------
+
+    /**
+     * Leases a driver, blocking while all sessions are in use.
+     * A healthy warm session from the same scope is preferred over a new browser.
+     *
+     * @param scope Reuse scope key from {@link #scopeKey(String, String, String)}
+     * @return A browser session owned by the calling thread until released
+     */
+    public WebDriver acquire(String scope) throws InterruptedException {
+        leases.acquire();
+        try {
+            WebDriver warm;
+            while ((warm = takeIdle(scope)) != null) {
+                if (BrowserSession.isHealthy(warm)) {
+                    return warm;
+                }
+                discard(warm);
+            }
+
+            WebDriver started = takePrewarmed();
+            if (started != null) {
+                return started;
+            }
+
+            reserveSlot();
+            try {
+                return BrowserSession.started(DriverFactory.createDriver());
+            } catch (RuntimeException e) {
+                synchronized (this) {
+                    openSessions--;
+                }
+                throw e;
+            }
+        } catch (RuntimeException e) {
+            leases.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Returns a leased driver to the pool. The session is kept warm for its scope
+     * when reuse is enabled and the reset succeeds, otherwise it is quit.
+     *
+     * @param scope  Scope key the driver was acquired with
+     * @param driver The driver previously returned by {@link #acquire(String)}
+     */
+    public void release(String scope, WebDriver driver) {
+        if (driver == null) {
+            return;
+        }
+        try {
+            if (reuseSessions && BrowserSession.reset(driver)) {
+                synchronized (this) {
+                    idle.computeIfAbsent(scope, k -> new ArrayDeque<>()).push(driver);
+                }
+            } else {
+                discard(driver);
+            }
+        } finally {
+            leases.release();
+        }
+    }
+
+    // -------------------------------------------------------
+    // Pre-warming
+    // -------------------------------------------------------
+
+    /**
+     * Starts up to {@code count} browsers in the background so the first tests
+     * do not pay browser start-up. The count is capped at the free pool capacity.
+     *
+     * @param count Number of browsers to launch ahead of demand
+     * @return The number of browsers actually being launched
+     */
+    public int prewarm(int count) {
+        int launching;
+        synchronized (this) {
+            launching = Math.min(count, size - openSessions);
+            openSessions += Math.max(launching, 0);
+        }
+        if (launching <= 0) {
+            return 0;
+        }
+
+        ExecutorService launcher = Executors.newFixedThreadPool(launching, task -> {
+            Thread thread = new Thread(task, "driver-prewarm");
+            thread.setDaemon(true);
+            return thread;
+        });
+        synchronized (this) {
+            for (int i = 0; i < launching; i++) {
+                prewarmed.add(CompletableFuture.supplyAsync(() -> BrowserSession.started(DriverFactory.createDriver()), launcher));
+            }
+        }
+        launcher.shutdown();
+        return launching;
+    }
+
+    // -------------------------------------------------------
+    // Shutdown
+    // -------------------------------------------------------
+
+    /** Quits the warm sessions kept for a scope once that scope has finished */
+    public void drain(String scope) {
+        Deque<WebDriver> drained;
+        synchronized (this) {
+            drained = idle.remove(scope);
+        }
+        if (drained != null) {
+            drained.forEach(this::discard);
+        }
+    }
+
+    /** Quits every warm session, typically at the end of the suite */
+    public void shutdown() {
+        List<WebDriver> drained = new ArrayList<>();
+        List<CompletableFuture<WebDriver>> starting;
+        synchronized (this) {
+            idle.values().forEach(drained::addAll);
+            idle.clear();
+            starting = new ArrayList<>(prewarmed);
+            prewarmed.clear();
+        }
+        drained.forEach(this::discard);
+
+        // Unclaimed pre-warmed browsers are quit once they finish starting
+        for (CompletableFuture<WebDriver> launch : starting) {
+            WebDriver driver = joinLaunch(launch);
+            if (driver != null) {
+                discard(driver);
+            }
+        }
+    }
+
+    // -------------------------------------------------------
+    // Internal Helpers
+    // -------------------------------------------------------
+
+    private synchronized WebDriver takeIdle(String scope) {
+        Deque<WebDriver> sessions = idle.get(scope);
+        return sessions == null ? null : sessions.poll();
+    }
+
+    /**
+     * Claims the first pre-warmed browser that started successfully, preferring
+     * ones that are already up. Failed launches are dropped from the count.
+     */
+    private WebDriver takePrewarmed() {
+        while (true) {
+            CompletableFuture<WebDriver> launch;
+            synchronized (this) {
+                launch = prewarmed.stream().filter(CompletableFuture::isDone).findFirst()
+                        .orElse(prewarmed.peekFirst());
+                if (launch == null) {
+                    return null;
+                }
+                prewarmed.remove(launch);
+            }
+
+            WebDriver driver = joinLaunch(launch);
+            if (driver != null) {
+                return driver;
+            }
+        }
+    }
+
+    /** Waits for a pre-warmed launch; a failed launch releases its slot and returns null */
+    private WebDriver joinLaunch(CompletableFuture<WebDriver> launch) {
+        try {
+            return launch.join();
+        } catch (CompletionException e) {
+            System.out.println("Pre-warmed browser failed to start: " + e.getCause());
+            synchronized (this) {
+                openSessions--;
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Counts a new session against the pool size. When warm sessions of other
+     * scopes already fill the pool, the oldest of them is evicted to make room.
+     */
+    private void reserveSlot() {
+        WebDriver evicted = null;
+        synchronized (this) {
+            if (openSessions >= size) {
+                Iterator<Deque<WebDriver>> scopes = idle.values().iterator();
+                while (evicted == null && scopes.hasNext()) {
+                    Deque<WebDriver> sessions = scopes.next();
+                    evicted = sessions.pollLast();
+                    if (sessions.isEmpty()) {
+                        scopes.remove();
+                    }
+                }
+            }
+            openSessions++;
+        }
+        if (evicted != null) {
+            discard(evicted);
+        }
+    }
+
+    private void discard(WebDriver driver) {
+        synchronized (this) {
+            openSessions--;
+        }
+        try {
+            driver.quit();
+        } catch (WebDriverException e) {
+            // The session is already gone
+        }
+    }
+}
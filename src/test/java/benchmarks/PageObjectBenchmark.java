@@ -0,0 +1,139 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chrome.ChromeDriver;
+import org.openqa.selenium.chrome.ChromeOptions;
+import org.openqa.selenium.support.events.EventFiringDecorator;
+import pages.DatePickerPage;
+import pages.ShadowDOMPage;
+import pages.StaticTablePages;
+import utils.FixtureServer;
+import utils.RoundTripCounter;
+
+/**
+ * PageObjectBenchmark measures the hot page-object operations against the
+ * hand-written local replica of testautomationpractice.blogspot.com in headless
+ * Chrome. It runs against the replica only, so its numbers describe the page
+ * objects, not the live site.
+ *
+ * Besides ops/s, every benchmark reports a "roundTrips" counter: the WebDriver
+ * commands issued per second. Dividing it by the benchmark's ops/s gives the
+ * round trips per operation, which is the number most changes move.
+ *
+ * Run with: mvn -Pbenchmark test-compile exec:exec
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PageObjectBenchmark {
+
+    private static final String FIXTURE_PATH = "/testautomationpractice.blogspot.com/";
+
+    FixtureServer server;
+    WebDriver driver;
+    RoundTripCounter counter;
+
+    StaticTablePages tablePage;
+    ShadowDOMPage shadowPage;
+    DatePickerPage datePickerPage;
+
+    // Alternates between two far-apart dates so every selection has to navigate
+    private boolean pickFuture;
+
+    // ------------------------------------------
+    // Setup & Teardown
+    // ------------------------------------------
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        server = FixtureServer.start(0);
+
+        ChromeOptions options = new ChromeOptions();
+        options.addArguments("--headless=new", "--window-size=1280,1024");
+        counter = new RoundTripCounter();
+        driver = new EventFiringDecorator<WebDriver>(counter).decorate(new ChromeDriver(options));
+        driver.get(server.getBaseUrl() + FIXTURE_PATH);
+
+        JavascriptExecutor js = (JavascriptExecutor) driver;
+        tablePage = new StaticTablePages(driver);
+        shadowPage = new ShadowDOMPage(driver, js);
+        datePickerPage = new DatePickerPage(driver, js);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        driver.quit();
+        server.stop();
+    }
+
+    /** Per-thread view of the round-trip counter, reported next to ops/s */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class RoundTrips {
+
+        public long roundTrips;
+
+        private long start;
+
+        @Setup(Level.Iteration)
+        public void begin(PageObjectBenchmark benchmark) {
+            start = benchmark.counter.get();
+            roundTrips = 0;
+        }
+
+        void record(PageObjectBenchmark benchmark) {
+            roundTrips = benchmark.counter.get() - start;
+        }
+    }
+
+    // ------------------------------------------
+    // Benchmarks
+    // ------------------------------------------
+    @Benchmark
+    public void readStaticTable(RoundTrips trips, Blackhole blackhole) {
+        blackhole.consume(tablePage.readAllDataFromStaticTable());
+        trips.record(this);
+    }
+
+    @Benchmark
+    public void readStaticTableByCell(RoundTrips trips, Blackhole blackhole) {
+        blackhole.consume(tablePage.readAllDataFromStaticTableByCell());
+        trips.record(this);
+    }
+
+    @Benchmark
+    public void locateNestedShadowElement(RoundTrips trips, Blackhole blackhole) {
+        blackhole.consume(shadowPage.locateNestedShadowHostDivElement());
+        trips.record(this);
+    }
+
+    @Benchmark
+    public void selectDate(RoundTrips trips) {
+        datePickerPage.click_input_datepicker();
+        if (pickFuture) {
+            datePickerPage.selectDate("June", "15", "2030");
+        } else {
+            datePickerPage.selectDate("January", "10", "2020");
+        }
+        pickFuture = !pickFuture;
+        trips.record(this);
+    }
+}
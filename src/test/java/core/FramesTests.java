@@ -1,5 +1,7 @@
 package core;
 
+import java.util.List;
+import org.testng.Assert;
 import org.testng.annotations.Test;
 import base.BaseTest;
 import io.qameta.allure.Description;
@@ -9,6 +11,7 @@ import io.qameta.allure.Severity;
 import io.qameta.allure.SeverityLevel;
 import io.qameta.allure.Story;
 import pages.FramesPage;
+import utils.CommandBudget;
 
 /**
  * FramesTests demonstrates how to interact with HTML frames using Selenium WebDriver.
@@ -141,4 +144,61 @@ public class FramesTests extends BaseTest {
         // Pause to visually observe the demo
         pauseForDemo();
     }
+
+	@Story("Skip redundant frame switches and read all frames at once")
+	@Test(description = "Frames: Repeated switches are skipped and all frames are read in one script")
+	@Severity(SeverityLevel.NORMAL)
+	@Description("Switches to frame 1 twice, enters text, returns to the main page twice, then reads every frame's input in one script")
+	@CommandBudget(maxCommands = 8) // frame switch (2) + sendKeys (2) + defaultContent (1) + one read script, plus headroom
+    public void redundantFrameSwitchesAreSkippedTest() throws InterruptedException {
+		
+		// Initialize the FramesPage object with driver
+		fp = new FramesPage(driver);
+		long skippedBefore = fp.getFrameContext().getSkippedSwitches();
+		
+		// Switch to frame 1; the second call finds the session already there
+		fp.switchToFrame1();
+		fp.switchToFrame1();
+		
+		//Enter text into frame
+		fp.sendKeysToFrame("I am on frame 1");
+		
+		// Return to the main page content; the second call is skipped as well
+		fp.switchToDefaultContent();
+		fp.switchToDefaultContent();
+		
+		// Read the inputs of all five frames without switching into them
+		List<String> values = fp.getAllFrameInputValues();
+		
+		Assert.assertEquals(values.size(), 5, "Expected one value per frame");
+		Assert.assertEquals(values.get(0), "I am on frame 1", "Text typed into frame 1 was not read back");
+		Assert.assertEquals(fp.getFrameContext().getSkippedSwitches() - skippedBefore, 2,
+				"Expected the repeated switches to be skipped");
+		
+        // Pause to visually observe the demo
+        pauseForDemo();
+    }
+
+	@Story("Find an input in an unknown frame")
+	@Test(description = "Frames: Search every frame for an input in one script")
+	@Severity(SeverityLevel.NORMAL)
+	@Description("Finds frame 4's input without naming its frame, enters text, and reads it back from the main page")
+	@CommandBudget(maxCommands = 9) // search script (1) + frame switch (2) + find and sendKeys (2) + return and read (2), plus headroom
+    public void crossFrameSearchTest() throws InterruptedException {
+		
+		// Initialize the FramesPage object with driver
+		fp = new FramesPage(driver);
+		
+		// Locate the input of frame 4 by name alone and enter text
+		fp.sendKeysToInputInAnyFrame("mytext4", "Found frame 4");
+		Assert.assertEquals(fp.getFrameContext().getCurrentPath().size(), 1, "Expected to be switched into one frame");
+		
+		// Read the inputs of all frames from the main page
+		List<String> values = fp.getAllFrameInputValues();
+		
+		Assert.assertEquals(values.get(3), "Found frame 4", "Text was not entered into frame 4");
+		
+        // Pause to visually observe the demo
+        pauseForDemo();
+    }
 }
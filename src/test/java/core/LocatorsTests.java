@@ -11,6 +11,7 @@ import io.qameta.allure.Severity;
 import io.qameta.allure.SeverityLevel;
 import io.qameta.allure.Story;
 import pages.LocatorsPage;
+import utils.CachingElementLocatorFactory;
 
 /**
  * LocatorsTest demonstrates different ways to locate web elements using Selenium.
@@ -202,4 +203,35 @@ public class LocatorsTests extends BaseTest {
         // Assertion: Verify that the type attribute of the input field is 'text'
         Assert.assertEquals(lp.get_input_search_Attribute(), "text", "Search input type attribute mismatch");
     }
+
+    // -----------------------
+    // Cached Element Lookups
+    // -----------------------
+    @Story("Reuse located elements")
+    @Test(description = "Look an element up once, reuse it, and look it up again after it is re-rendered")
+    @Severity(SeverityLevel.NORMAL)
+    @Description("Reads the heading twice and checks the second read is served from the locator cache, then replaces the heading in the DOM and checks the stale element is looked up again and the call retried")
+    public void cachedLocatorReuseAndStaleRetry() throws InterruptedException {
+    	
+    	//Initialize the LocatorsPage object with driver and JavascriptExecutor
+    	lp = new LocatorsPage(driver, js);
+    	CachingElementLocatorFactory cache = lp.getLocatorCache();
+    	
+        // First use looks the heading up, the second reuses it
+        String title = lp.get_h1_title_Text();
+        Assert.assertEquals(cache.getMisses(), 1, "First use of the heading should look it up");
+        Assert.assertEquals(cache.getHits(), 0, "Nothing should be served from the cache before the first lookup");
+        Assert.assertTrue(lp.is_h1_title_Displayed(), "Heading with class 'title' is not displayed");
+        Assert.assertEquals(cache.getHits(), 1, "Second use of the heading should come from the cache");
+        Assert.assertEquals(cache.getMisses(), 1, "Second use of the heading should not look it up again");
+        
+        // Re-render the heading: the cached element is now stale
+        js.executeScript("var h = document.querySelector('.title'); h.replaceWith(h.cloneNode(true));");
+        
+        // The stale element is dropped, looked up again and the call retried once
+        Assert.assertEquals(lp.get_h1_title_Text(), title, "Heading text should survive the re-render");
+        Assert.assertEquals(cache.getStaleRetries(), 1, "The stale heading should be retried once");
+        Assert.assertEquals(cache.getMisses(), 2, "The retry should look the heading up again");
+        Assert.assertEquals(cache.getHits(), 2, "The stale element should have been served once before the retry");
+    }
 }
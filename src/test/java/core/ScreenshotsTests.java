@@ -1,6 +1,8 @@
 package core;
 
-import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.testng.Assert;
 import org.testng.annotations.Test;
 import base.BaseTest;
 import io.qameta.allure.Description;
@@ -10,6 +12,9 @@ import io.qameta.allure.Severity;
 import io.qameta.allure.SeverityLevel;
 import io.qameta.allure.Story;
 import pages.ScreenshotsPage;
+import utils.ScreenshotWriter;
+import utils.VisualAssert;
+import utils.VisualDiff;
 
 /**
  * ScreenshotsTests demonstrates how to capture screenshots using Selenium WebDriver.
@@ -17,6 +22,9 @@ import pages.ScreenshotsPage;
  * The class covers:
  * 1. Full-page screenshots: Captures the entire page view of a website and saves it as an image file.
  * 2. Element-specific screenshots: Captures only a specific web element (e.g., logo) and saves it as an image file.
+ * 3. Background writing: Screenshots are written to disk by a background writer, and are complete after a flush.
+ * 4. Content-addressed storage: Identical captures share one image file, named by its hash.
+ * 5. Visual regression: A capture is compared with a baseline image, and a diff mask is written on mismatch.
  * 
  * These tests showcase best practices for visual validation, debugging, and reporting, 
  * allowing testers to capture and store screenshots for documentation or verification purposes.
@@ -32,7 +40,7 @@ public class ScreenshotsTests extends BaseTest {
     @Test(description = "Captures the full page of DemoQA homepage as an image")
     @Severity(SeverityLevel.CRITICAL)
     @Description("Captures a full-page screenshot of the DemoQA homepage and saves it to the screenshots folder.")
-    public void captureFullPageTest() throws IOException {
+    public void captureFullPageTest() {
     	
     	//Initialize the ScreenshotsPage object with driver and TakesScreenshot
     	sp = new ScreenshotsPage(driver, ts);
@@ -45,7 +53,7 @@ public class ScreenshotsTests extends BaseTest {
     @Test(description = "Captures a screenshot of the ToolsQA logo element")
     @Severity(SeverityLevel.NORMAL)
     @Description("Captures a screenshot of the ToolsQA logo element and saves it to the screenshots folder.")
-    public void captureElementTest() throws IOException {
+    public void captureElementTest() {
     	
     	//Initialize the ScreenshotsPage object with driver and TakesScreenshot
     	sp = new ScreenshotsPage(driver, ts);
@@ -53,4 +61,47 @@ public class ScreenshotsTests extends BaseTest {
         // Capture a screenshot of the specific element
     	sp.captureLogoElement();
     }
+
+    @Story("Write screenshots in the background")
+    @Test(description = "Verifies a captured screenshot is on disk after the writer is flushed")
+    @Severity(SeverityLevel.NORMAL)
+    @Description("Captures a full-page screenshot, flushes the background writer and checks the PNG file was written.")
+    public void capturedScreenshotIsWrittenAfterFlushTest() throws Exception {
+    	
+    	sp = new ScreenshotsPage(driver, ts);
+
+        // Capture returns as soon as the PNG is queued
+    	Path file = sp.captureFullPage(driver, "FullPage_Flushed");
+
+        // Wait for the background writer, then check the file
+    	ScreenshotWriter.getInstance().flush();
+    	Assert.assertTrue(Files.size(file) > 0, "Screenshot should be written to " + file);
+    }
+
+    @Story("Store identical screenshots once")
+    @Test(description = "Verifies two captures of the same element share one stored image")
+    @Severity(SeverityLevel.NORMAL)
+    @Description("Captures the ToolsQA logo twice and checks both captures point at the same content-addressed file.")
+    public void identicalScreenshotsAreStoredOnceTest() {
+    	
+    	sp = new ScreenshotsPage(driver, ts);
+
+        // The logo does not change between captures, so both have the same hash
+    	Path first = sp.captureLogoElement();
+    	Path second = sp.captureLogoElement();
+    	Assert.assertEquals(second, first, "Identical screenshots should share one file");
+    }
+
+    @Story("Compare a screenshot with its baseline")
+    @Test(description = "Verifies the ToolsQA logo looks the same as its baseline image")
+    @Severity(SeverityLevel.NORMAL)
+    @Description("Captures the ToolsQA logo and compares it with the stored baseline; the first run records the baseline.")
+    public void logoMatchesBaselineTest() {
+    	
+    	sp = new ScreenshotsPage(driver, ts);
+
+        // Capture the logo and compare it using the thresholds from config.properties
+    	Path logo = sp.captureLogoElement();
+    	VisualAssert.assertMatchesBaseline(logo, "ToolsQA_Logo", VisualDiff.fromConfig());
+    }
 }
@@ -0,0 +1,151 @@
+package core;
+
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.testng.Assert;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+import io.qameta.allure.Description;
+import io.qameta.allure.Epic;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Severity;
+import io.qameta.allure.SeverityLevel;
+import io.qameta.allure.Story;
+import utils.VisualDiff;
+
+/**
+ * VisualDiffTests checks the screenshot comparison used by visual regression
+ * tests, on generated images, so it needs no browser.
+ *
+ * The class covers:
+ * 1. Identical images match, and no diff mask is written.
+ * 2. A single changed pixel is found, counted, and marked in a diff mask.
+ * 3. A color change below the threshold is tolerated.
+ * 4. Changes inside an ignored region are left out.
+ * 5. Images of different sizes never match.
+ *
+ * The images are 200x150 pixels, so they span several comparison tiles,
+ * including partial ones at the right and bottom edges.
+ */
+
+@Epic("Core Selenium Tests")
+@Feature("Screenshot Capturing Module")
+public class VisualDiffTests {
+
+	private static final int WIDTH = 200;
+	private static final int HEIGHT = 150;
+
+	Path diffDir;
+
+	@BeforeClass
+	public void createDiffDir() throws IOException {
+		diffDir = Files.createTempDirectory("visual-diff");
+	}
+
+	@Story("Compare identical images")
+	@Test(description = "Identical images match without a diff mask")
+	@Severity(SeverityLevel.NORMAL)
+	@Description("Compares an image with an exact copy of itself and expects a match with no differing pixels.")
+	public void identicalImagesMatchTest() throws IOException {
+
+		Path mask = diffDir.resolve("identical.png");
+		VisualDiff.Result result = VisualDiff.exact().compare(pattern(), pattern(), mask);
+
+		Assert.assertTrue(result.matches(), result.toString());
+		Assert.assertEquals(result.getDifferingPixels(), 0);
+		Assert.assertEquals(result.getTotalPixels(), (long) WIDTH * HEIGHT);
+		Assert.assertFalse(Files.exists(mask), "No diff mask should be written for matching images");
+	}
+
+	@Story("Find a single changed pixel")
+	@Test(description = "One changed pixel fails an exact comparison and is marked in the diff mask")
+	@Severity(SeverityLevel.CRITICAL)
+	@Description("Changes one pixel in the last, partial tile and expects exactly one differing pixel, drawn red in the mask.")
+	public void singleChangedPixelTest() throws IOException {
+
+		BufferedImage actual = pattern();
+		actual.setRGB(WIDTH - 1, HEIGHT - 1, 0xFF000000);
+
+		Path mask = diffDir.resolve("single-pixel.png");
+		VisualDiff.Result result = VisualDiff.exact().compare(pattern(), actual, mask);
+
+		Assert.assertFalse(result.matches(), "A changed pixel should fail an exact comparison");
+		Assert.assertEquals(result.getDifferingPixels(), 1);
+		Assert.assertEquals(result.getDiffMask(), mask);
+		Assert.assertTrue(Files.exists(mask), "The diff mask should be written on mismatch");
+
+		// The allowance is a share of all pixels, so one pixel in 30000 fits within 0.01%
+		Assert.assertTrue(VisualDiff.exact().maxDiffRatio(0.0001).compare(pattern(), actual, null).matches());
+	}
+
+	@Story("Tolerate small color changes")
+	@Test(description = "A color change below the threshold still matches")
+	@Severity(SeverityLevel.NORMAL)
+	@Description("Shifts a block of pixels by a barely visible amount and expects a match at threshold 0.1, but not at 0.")
+	public void changeBelowThresholdTest() throws IOException {
+
+		BufferedImage actual = pattern();
+		for (int y = 10; y < 20; y++) {
+			for (int x = 10; x < 20; x++) {
+				actual.setRGB(x, y, actual.getRGB(x, y) + 0x010101);
+			}
+		}
+
+		Assert.assertTrue(VisualDiff.exact().threshold(0.1).compare(pattern(), actual, null).matches());
+		Assert.assertEquals(VisualDiff.exact().compare(pattern(), actual, null).getDifferingPixels(), 100);
+	}
+
+	@Story("Ignore dynamic regions")
+	@Test(description = "Changes inside an ignored region do not count")
+	@Severity(SeverityLevel.NORMAL)
+	@Description("Blacks out a region spanning several tiles and expects a match only when that region is ignored.")
+	public void changeInsideIgnoredRegionTest() throws IOException {
+
+		Rectangle clock = new Rectangle(50, 40, 40, 40);
+		BufferedImage actual = pattern();
+		for (int y = clock.y; y < clock.y + clock.height; y++) {
+			for (int x = clock.x; x < clock.x + clock.width; x++) {
+				actual.setRGB(x, y, 0xFF000000);
+			}
+		}
+
+		Path mask = diffDir.resolve("ignored.png");
+		VisualDiff.Result ignored = VisualDiff.exact().ignore(clock).compare(pattern(), actual, mask);
+		Assert.assertTrue(ignored.matches(), ignored.toString());
+		Assert.assertEquals(ignored.getDifferingPixels(), 0);
+		Assert.assertFalse(Files.exists(mask), "No diff mask should be written for matching images");
+
+		Assert.assertEquals(VisualDiff.exact().compare(pattern(), actual, null).getDifferingPixels(), 1600);
+	}
+
+	@Story("Reject images of another size")
+	@Test(description = "Images of different sizes never match")
+	@Severity(SeverityLevel.NORMAL)
+	@Description("Compares images one pixel apart in width and expects a mismatch without a pixel count or diff mask.")
+	public void sizeMismatchTest() throws IOException {
+
+		BufferedImage wider = new BufferedImage(WIDTH + 1, HEIGHT, BufferedImage.TYPE_INT_ARGB);
+		Path mask = diffDir.resolve("size.png");
+		VisualDiff.Result result = VisualDiff.fromConfig().maxDiffRatio(1).compare(pattern(), wider, mask);
+
+		Assert.assertFalse(result.matches(), "Images of different sizes should not match");
+		Assert.assertEquals(result.getDifferingPixels(), -1);
+		Assert.assertNull(result.getDiffMask());
+		Assert.assertFalse(Files.exists(mask), "No diff mask is drawn for images of different sizes");
+	}
+
+	/** A mid-gray gradient, so small color shifts never overflow a channel */
+	private static BufferedImage pattern() {
+		BufferedImage image = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_ARGB);
+		for (int y = 0; y < HEIGHT; y++) {
+			for (int x = 0; x < WIDTH; x++) {
+				int shade = 64 + (x + y) % 128;
+				image.setRGB(x, y, 0xFF000000 | shade << 16 | shade << 8 | shade);
+			}
+		}
+		return image;
+	}
+}
@@ -85,7 +85,7 @@ public class WaitsTests extends BaseTest {
 	@Story("Wait for dynamically loaded element using custom polling")
 	@Test(description = "Demonstrate Fluent Wait")
 	@Severity(SeverityLevel.CRITICAL)
-	@Description("Clicks the Start button and waits for the 'Hello World!' element using Fluent Wait with polling every 2 seconds")
+	@Description("Clicks the Start button and waits for the 'Hello World!' element using Fluent Wait with adaptive backoff polling")
 	public void fluentWaitTest() throws InterruptedException {
 		
     	//Initialize the WaitsPage object with driver and JavascriptExecutor
@@ -94,7 +94,7 @@ public class WaitsTests extends BaseTest {
 		// Click the "Start" button to trigger the dynamic loading of the "Hello World!" element
 		wp.click_button_start();
 		
-		// Set up Fluent Wait: wait up to 15 seconds, polling every 2 seconds, ignoring NoSuchElementException
+		// Set up Fluent Wait: wait up to 15 seconds, polling with adaptive backoff, ignoring NoSuchElementException
 		// Wait until the "Hello World!" element is visible
 		wp.startFluentWait_h4_HelloWorld();
         
@@ -108,5 +108,31 @@ public class WaitsTests extends BaseTest {
 		Assert.assertTrue(wp.is_h4_HelloWorld_Displayed(), "'Hello World!' element is not visible (Fluent Wait)");
 				
 	}
+	
+	@Story("Wait for dynamically loaded element using a DOM MutationObserver")
+	@Test(description = "Demonstrate In-Browser MutationObserver Wait")
+	@Severity(SeverityLevel.NORMAL)
+	@Description("Clicks the Start button and waits inside the browser, with a MutationObserver, for the 'Hello World!' element to become visible")
+	public void mutationObserverWaitTest() throws InterruptedException {
+		
+    	//Initialize the WaitsPage object with driver and JavascriptExecutor
+		wp = new WaitsPage(driver, js);
+		
+		// Click the "Start" button to trigger the dynamic loading of the "Hello World!" element
+		wp.click_button_start();
+		
+		// Wait in the page itself: the script returns the moment the element becomes visible
+		wp.startMutationObserverWait_h4_HelloWorld();
+        
+		// Highlight the element for demo
+		wp.highlight_h4_HelloWorld();
+		
+        // Pause to visually observe the demo
+        pauseForDemo();
+		
+		// Assertion: Verify that the "Hello World!" element is displayed
+		Assert.assertTrue(wp.is_h4_HelloWorld_Displayed(), "'Hello World!' element is not visible (MutationObserver Wait)");
+				
+	}
 
 }
@@ -0,0 +1,79 @@
+package listeners;
+
+import org.testng.IInvokedMethod;
+import org.testng.IInvokedMethodListener;
+import org.testng.ITestResult;
+import base.BaseTest;
+import utils.CommandBudget;
+import utils.CommandMetrics;
+
+/**
+ * CommandBudgetListener enforces {@link CommandBudget} on test methods.
+ *
+ * It notes the command count and the clock when a budgeted test starts and
+ * fails the test afterwards if it went over either limit. Tests that already
+ * failed keep their original failure.
+ *
+ * Register it in the suite XML:
+ * <pre>
+ * &lt;listeners&gt;
+ *     &lt;listener class-name="listeners.CommandBudgetListener" /&gt;
+ * &lt;/listeners&gt;
+ * </pre>
+ */
+public class CommandBudgetListener implements IInvokedMethodListener {
+
+    private static final String START_COMMANDS = "commandBudget.startCommands";
+    private static final String START_NANOS = "commandBudget.startNanos";
+    private static final String START_PAUSE_MILLIS = "commandBudget.startPauseMillis";
+
+    @Override
+    public void beforeInvocation(IInvokedMethod method, ITestResult testResult) {
+        if (budgetOf(method) == null) {
+            return;
+        }
+        testResult.setAttribute(START_COMMANDS, CommandMetrics.getInstance().currentTestCommandCount());
+        testResult.setAttribute(START_PAUSE_MILLIS, BaseTest.getDemoPauseMillis());
+        testResult.setAttribute(START_NANOS, System.nanoTime());
+    }
+
+    @Override
+    public void afterInvocation(IInvokedMethod method, ITestResult testResult) {
+        CommandBudget budget = budgetOf(method);
+        if (budget == null || testResult.getAttribute(START_NANOS) == null) {
+            return;
+        }
+        long elapsedMillis = (System.nanoTime() - (Long) testResult.getAttribute(START_NANOS)) / 1_000_000
+                - (BaseTest.getDemoPauseMillis() - (Long) testResult.getAttribute(START_PAUSE_MILLIS));
+        long startCommands = (Long) testResult.getAttribute(START_COMMANDS);
+        long endCommands = CommandMetrics.getInstance().currentTestCommandCount();
+
+        StringBuilder violations = new StringBuilder();
+        if (budget.maxCommands() >= 0) {
+            if (startCommands < 0 || endCommands < 0) {
+                System.out.println("[" + testResult.getName() + "] command budget not checked: commandMetrics is off");
+            } else if (endCommands - startCommands > budget.maxCommands()) {
+                violations.append("sent ").append(endCommands - startCommands)
+                          .append(" WebDriver commands, budget is ").append(budget.maxCommands());
+            }
+        }
+        if (budget.maxMillis() >= 0 && elapsedMillis > budget.maxMillis()) {
+            violations.append(violations.length() > 0 ? "; " : "")
+                      .append("took ").append(elapsedMillis)
+                      .append(" ms, budget is ").append(budget.maxMillis()).append(" ms");
+        }
+
+        if (violations.length() > 0 && testResult.getStatus() == ITestResult.SUCCESS) {
+            testResult.setStatus(ITestResult.FAILURE);
+            testResult.setThrowable(new AssertionError(
+                    testResult.getMethod().getQualifiedName() + " exceeded its budget: " + violations));
+        }
+    }
+
+    private static CommandBudget budgetOf(IInvokedMethod method) {
+        if (!method.isTestMethod()) {
+            return null;
+        }
+        return method.getTestMethod().getConstructorOrMethod().getMethod().getAnnotation(CommandBudget.class);
+    }
+}
@@ -0,0 +1,71 @@
+package listeners;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import org.testng.IInvokedMethod;
+import org.testng.IInvokedMethodListener;
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+import org.testng.ITestResult;
+import io.qameta.allure.Allure;
+import utils.CommandMetrics;
+import utils.ConfigReader;
+
+/**
+ * CommandMetricsListener publishes the WebDriver command metrics recorded by
+ * {@link CommandMetrics}.
+ *
+ * After each test method, the commands it issued (counts and latency
+ * percentiles per command and per page-object method) are attached to the
+ * test in the Allure report. When a suite finishes, the numbers for the whole
+ * run are written to {@code commandMetricsReport} (target/command-metrics.json
+ * by default).
+ *
+ * Register it in the suite XML:
+ * <pre>
+ * &lt;listeners&gt;
+ *     &lt;listener class-name="listeners.CommandMetricsListener" /&gt;
+ * &lt;/listeners&gt;
+ * </pre>
+ */
+public class CommandMetricsListener implements IInvokedMethodListener, ISuiteListener {
+
+    private static final String DEFAULT_REPORT = "target/command-metrics.json";
+
+    // ------------------------------------------
+    // Per-Test Allure Attachment
+    // ------------------------------------------
+    @Override
+    public void afterInvocation(IInvokedMethod method, ITestResult testResult) {
+        if (!method.isTestMethod()) {
+            return;
+        }
+        // Runs on the test's thread while its Allure test case is still open
+        String json = CommandMetrics.getInstance().currentTestJson();
+        if (json != null) {
+            Allure.addAttachment("WebDriver command metrics", "application/json", json, ".json");
+        }
+    }
+
+    // ------------------------------------------
+    // Run Report
+    // ------------------------------------------
+    @Override
+    public void onFinish(ISuite suite) {
+        String configured = ConfigReader.get("commandMetricsReport");
+        Path report = Paths.get(configured == null || configured.isBlank() ? DEFAULT_REPORT : configured.trim());
+        try {
+            if (report.getParent() != null) {
+                Files.createDirectories(report.getParent());
+            }
+            Files.write(report, CommandMetrics.getInstance().runJson().getBytes(StandardCharsets.UTF_8));
+            System.out.println("WebDriver command metrics written to " + report.toAbsolutePath());
+        } catch (IOException e) {
+            System.out.println("Could not write the command metrics report to " + report);
+            e.printStackTrace();
+        }
+    }
+}
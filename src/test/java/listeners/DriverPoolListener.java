@@ -0,0 +1,141 @@
+package listeners;
+
+import java.util.List;
+import org.testng.IAlterSuiteListener;
+import org.testng.IClassListener;
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+import org.testng.ITestClass;
+import org.testng.ITestContext;
+import org.testng.ITestListener;
+import org.testng.xml.XmlSuite;
+import base.DriverPool;
+import utils.ConfigReader;
+
+/**
+ * DriverPoolListener ties the driver pool to the TestNG lifecycle.
+ *
+ * When {@code parallel} is set in config.properties ("tests", "classes" or
+ * "none"), every suite is switched to that parallel mode and given one worker
+ * thread per pooled browser session, so the suite XML files do not need
+ * hard-coded thread counts. Method- or instance-level parallelism is rejected,
+ * since test classes keep their browser in instance fields. Browsers can be
+ * pre-warmed from here before the first test starts. Warm sessions kept
+ * by session reuse are quit when their class, &lt;test&gt; block or suite finishes.
+ *
+ * Register it in the suite XML:
+ * <pre>
+ * &lt;listeners&gt;
+ *     &lt;listener class-name="listeners.DriverPoolListener" /&gt;
+ * &lt;/listeners&gt;
+ * </pre>
+ */
+public class DriverPoolListener implements IAlterSuiteListener, ISuiteListener, ITestListener, IClassListener {
+
+    // ------------------------------------------
+    // Suite Configuration
+    // ------------------------------------------
+    @Override
+    public void alter(List<XmlSuite> suites) {
+        applyParallelMode(suites);
+        prewarmDrivers(suites);
+    }
+
+    /**
+     * Switches suites to the configured parallel mode, one thread per pooled browser.
+     * Only "tests", "classes" and "none" are accepted: BaseTest keeps the leased
+     * browser in instance fields, so methods of one class must share a thread.
+     * Suites that set parallel="methods" or "instances" themselves are rejected too.
+     */
+    private void applyParallelMode(List<XmlSuite> suites) {
+        String parallel = ConfigReader.get("parallel");
+        if (parallel != null && !parallel.isBlank()) {
+            XmlSuite.ParallelMode mode = parseParallelMode(parallel.trim());
+            int threadCount = DriverPool.getInstance().getSize();
+
+            for (XmlSuite suite : suites) {
+                suite.setParallel(mode);
+                suite.setThreadCount(threadCount);
+            }
+        }
+
+        for (XmlSuite suite : suites) {
+            XmlSuite.ParallelMode mode = suite.getParallel();
+            if (mode == XmlSuite.ParallelMode.METHODS || mode == XmlSuite.ParallelMode.INSTANCES) {
+                throw new IllegalArgumentException("Suite \"" + suite.getName() + "\" uses parallel=\"" + mode
+                        + "\", which would let test methods of one class share a browser; use \"tests\" or \"classes\"");
+            }
+        }
+    }
+
+    private static XmlSuite.ParallelMode parseParallelMode(String parallel) {
+        switch (parallel.toLowerCase()) {
+            case "tests":
+                return XmlSuite.ParallelMode.TESTS;
+            case "classes":
+                return XmlSuite.ParallelMode.CLASSES;
+            case "none":
+            case "false":
+                return XmlSuite.ParallelMode.NONE;
+            case "methods":
+            case "instances":
+                throw new IllegalArgumentException("parallel=" + parallel + " in config.properties is not supported: "
+                        + "BaseTest keeps each test class's browser in instance fields, so methods of one class "
+                        + "must run on one thread. Use tests, classes or none.");
+            default:
+                throw new IllegalArgumentException("Unknown parallel mode \"" + parallel
+                        + "\" in config.properties; expected tests, classes or none");
+        }
+    }
+
+    /**
+     * Starts browsers in the background while TestNG is still building the suite.
+     * {@code prewarmSessions} is a count, or "auto" for one browser per &lt;test&gt;
+     * block (capped at the pool size); 0 or blank disables pre-warming.
+     */
+    private void prewarmDrivers(List<XmlSuite> suites) {
+        String configured = ConfigReader.get("prewarmSessions");
+        if (configured == null || configured.isBlank()) {
+            return;
+        }
+
+        int testCount = 0;
+        for (XmlSuite suite : suites) {
+            testCount += suite.getTests().size();
+        }
+
+        int count = configured.trim().equalsIgnoreCase("auto")
+                ? testCount
+                : Math.min(Integer.parseInt(configured.trim()), testCount);
+        if (count > 0) {
+            DriverPool.getInstance().prewarm(count);
+        }
+    }
+
+    // ------------------------------------------
+    // Warm Session Cleanup
+    // ------------------------------------------
+    @Override
+    public void onAfterClass(ITestClass testClass) {
+        if (!"class".equals(DriverPool.reuseScope())) {
+            return;
+        }
+        XmlSuite suite = testClass.getXmlTest().getSuite();
+        DriverPool.getInstance().drain(
+                DriverPool.scopeKey(suite.getName(), testClass.getXmlTest().getName(), testClass.getName()));
+    }
+
+    @Override
+    public void onFinish(ITestContext context) {
+        if (!"test".equals(DriverPool.reuseScope())) {
+            return;
+        }
+        DriverPool.getInstance().drain(
+                DriverPool.scopeKey(context.getSuite().getName(), context.getName(), ""));
+    }
+
+    @Override
+    public void onFinish(ISuite suite) {
+        DriverPool.getInstance().shutdown();
+    }
+}
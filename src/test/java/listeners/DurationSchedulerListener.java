@@ -0,0 +1,148 @@
+package listeners;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import org.testng.IAlterSuiteListener;
+import org.testng.IMethodInstance;
+import org.testng.IMethodInterceptor;
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+import org.testng.ISuiteResult;
+import org.testng.ITestContext;
+import org.testng.ITestNGMethod;
+import org.testng.ITestResult;
+import org.testng.xml.XmlClass;
+import org.testng.xml.XmlSuite;
+import org.testng.xml.XmlTest;
+import utils.ConfigReader;
+import utils.DurationHistory;
+
+/**
+ * DurationSchedulerListener starts the longest work first, so slow tests do not
+ * end up last and stretch the tail of a parallel run.
+ *
+ * After every suite it records how long each test method took in
+ * {@link DurationHistory}. On the next run, with {@code durationScheduling=true}:
+ * <ul>
+ *   <li>&lt;test&gt; blocks are reordered longest-first, so the worker pool
+ *       (parallel="tests") picks up the slowest blocks before the quick ones;</li>
+ *   <li>methods inside a block are reordered longest-first, which decides
+ *       the dispatch order under parallel="methods" or "classes".</li>
+ * </ul>
+ * Blocks and methods without history keep their place relative to each other
+ * and count as average. If any method uses a priority, that block's order is
+ * left as written.
+ *
+ * Register it in the suite XML:
+ * <pre>
+ * &lt;listeners&gt;
+ *     &lt;listener class-name="listeners.DurationSchedulerListener" /&gt;
+ * &lt;/listeners&gt;
+ * </pre>
+ */
+public class DurationSchedulerListener implements IAlterSuiteListener, IMethodInterceptor, ISuiteListener {
+
+    /** Key prefix of method durations in the duration history */
+    public static final String METHOD_KEY_PREFIX = "method.";
+
+    private static boolean isSchedulingEnabled() {
+        return ConfigReader.getBoolean("durationScheduling", false);
+    }
+
+    // ------------------------------------------
+    // Ordering <test> Blocks
+    // ------------------------------------------
+    @Override
+    public void alter(List<XmlSuite> suites) {
+        if (!isSchedulingEnabled()) {
+            return;
+        }
+        DurationHistory history = DurationHistory.load();
+        for (XmlSuite suite : suites) {
+            Map<XmlTest, Long> estimates = new HashMap<>();
+            for (XmlTest test : suite.getTests()) {
+                estimates.put(test, estimateTest(test, history));
+            }
+            fillUnknownWithAverage(estimates);
+
+            // List.sort is stable, so blocks with equal estimates keep their XML order
+            List<XmlTest> longestFirst = new ArrayList<>(suite.getTests());
+            longestFirst.sort(Comparator.comparing((XmlTest test) -> estimates.get(test)).reversed());
+            suite.getTests().clear();
+            suite.getTests().addAll(longestFirst);
+        }
+    }
+
+    /** Sum of the block's class durations, falling back to its recorded method durations; null if unknown */
+    private static Long estimateTest(XmlTest test, DurationHistory history) {
+        Long total = null;
+        for (XmlClass xmlClass : test.getXmlClasses()) {
+            Long classMillis = history.get(ShardingListener.CLASS_KEY_PREFIX + xmlClass.getName());
+            if (classMillis == null) {
+                classMillis = history.sumWithPrefix(METHOD_KEY_PREFIX + xmlClass.getName() + ".");
+            }
+            if (classMillis != null) {
+                total = (total == null ? 0 : total) + classMillis;
+            }
+        }
+        return total;
+    }
+
+    private static <K> void fillUnknownWithAverage(Map<K, Long> estimates) {
+        List<Long> known = estimates.values().stream().filter(v -> v != null).collect(Collectors.toList());
+        long average = known.isEmpty() ? 0 : known.stream().mapToLong(Long::longValue).sum() / known.size();
+        estimates.replaceAll((key, value) -> value == null ? average : value);
+    }
+
+    // ------------------------------------------
+    // Ordering Methods
+    // ------------------------------------------
+    @Override
+    public List<IMethodInstance> intercept(List<IMethodInstance> methods, ITestContext context) {
+        if (!isSchedulingEnabled() || methods.stream().anyMatch(m -> m.getMethod().getPriority() != 0)) {
+            return methods;
+        }
+        DurationHistory history = DurationHistory.load();
+        Map<IMethodInstance, Long> estimates = new HashMap<>();
+        for (IMethodInstance method : methods) {
+            estimates.put(method, history.get(methodKey(method.getMethod())));
+        }
+        fillUnknownWithAverage(estimates);
+
+        List<IMethodInstance> longestFirst = new ArrayList<>(methods);
+        longestFirst.sort(Comparator.comparing((IMethodInstance method) -> estimates.get(method)).reversed());
+        return longestFirst;
+    }
+
+    private static String methodKey(ITestNGMethod method) {
+        return METHOD_KEY_PREFIX + method.getRealClass().getName() + "." + method.getMethodName();
+    }
+
+    // ------------------------------------------
+    // Recording Durations
+    // ------------------------------------------
+
+    /** Adds the duration of every test method (all invocations together) to the history */
+    @Override
+    public void onFinish(ISuite suite) {
+        Map<String, Long> methodMillis = new HashMap<>();
+        for (ISuiteResult suiteResult : suite.getResults().values()) {
+            ITestContext context = suiteResult.getTestContext();
+            List<ITestResult> results = new ArrayList<>();
+            results.addAll(context.getPassedTests().getAllResults());
+            results.addAll(context.getFailedTests().getAllResults());
+
+            for (ITestResult result : results) {
+                if (result.getEndMillis() >= result.getStartMillis()) {
+                    methodMillis.merge(methodKey(result.getMethod()),
+                            result.getEndMillis() - result.getStartMillis(), Long::sum);
+                }
+            }
+        }
+        DurationHistory.record(methodMillis);
+    }
+}
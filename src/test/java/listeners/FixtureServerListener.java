@@ -0,0 +1,114 @@
+package listeners;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.testng.IAlterSuiteListener;
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+import org.testng.xml.XmlClass;
+import org.testng.xml.XmlSuite;
+import org.testng.xml.XmlTest;
+import utils.ConfigReader;
+import utils.FixtureServer;
+
+/**
+ * FixtureServerListener lets the suite run against local replicas of the
+ * practice pages instead of the public sites.
+ *
+ * When {@code useLocalFixtures} is true (it is false by default), it starts a
+ * {@link FixtureServer} before the suite runs and rewrites every {@code url}
+ * parameter that has a fixture under src/test/resources/fixtures to point at
+ * localhost. Pages without a fixture keep their public URL. The fixtures are
+ * hand-written imitations of the sections the suite uses, not saved copies, so
+ * a pass against them does not prove the live pages still behave the same.
+ *
+ * Register it in the suite XML:
+ * <pre>
+ * &lt;listeners&gt;
+ *     &lt;listener class-name="listeners.FixtureServerListener" /&gt;
+ * &lt;/listeners&gt;
+ * </pre>
+ */
+public class FixtureServerListener implements IAlterSuiteListener, ISuiteListener {
+
+    private static FixtureServer server;
+    private static int remainingSuites;
+
+    // ------------------------------------------
+    // Suite Configuration
+    // ------------------------------------------
+    @Override
+    public void alter(List<XmlSuite> suites) {
+        if (!ConfigReader.getBoolean("useLocalFixtures", false)) {
+            return;
+        }
+
+        FixtureServer fixtures = startServer(suites.size());
+        if (fixtures == null) {
+            return;
+        }
+        for (XmlSuite suite : suites) {
+            rewriteUrls(suite, fixtures);
+        }
+    }
+
+    /** Points each url parameter (suite, &lt;test&gt; and class level) at its local fixture, if it has one */
+    private void rewriteUrls(XmlSuite suite, FixtureServer fixtures) {
+        Map<String, String> suiteParameters = suite.getParameters();
+        String suiteUrl = suiteParameters.get("url");
+        if (suiteUrl != null && fixtures.localUrlFor(suiteUrl) != null) {
+            suiteParameters.put("url", fixtures.localUrlFor(suiteUrl));
+            suite.setParameters(suiteParameters);
+        }
+
+        for (XmlTest test : suite.getTests()) {
+            String url = test.getLocalParameters().get("url");
+            String localUrl = url == null ? null : fixtures.localUrlFor(url);
+            if (localUrl != null) {
+                test.addParameter("url", localUrl);
+                System.out.println("[" + test.getName() + "] " + url + " -> " + localUrl);
+            }
+
+            // Class-level url parameters, as set by ShardingListener for suites built from classes
+            for (XmlClass xmlClass : test.getXmlClasses()) {
+                String classUrl = xmlClass.getLocalParameters().get("url");
+                String localClassUrl = classUrl == null ? null : fixtures.localUrlFor(classUrl);
+                if (localClassUrl != null) {
+                    Map<String, String> parameters = new HashMap<>(xmlClass.getLocalParameters());
+                    parameters.put("url", localClassUrl);
+                    xmlClass.setParameters(parameters);
+                }
+            }
+        }
+    }
+
+    private static synchronized FixtureServer startServer(int suiteCount) {
+        remainingSuites += suiteCount;
+        if (server == null) {
+            try {
+                server = FixtureServer.start(ConfigReader.getInt("fixtureServerPort", 0));
+                System.out.println("Serving local fixtures at " + server.getBaseUrl());
+            } catch (IOException e) {
+                System.out.println("Could not start the fixture server, using the public sites");
+                e.printStackTrace();
+            }
+        }
+        return server;
+    }
+
+    // ------------------------------------------
+    // Server Shutdown
+    // ------------------------------------------
+    /** Stops the server once the last suite served by it has finished */
+    @Override
+    public void onFinish(ISuite suite) {
+        synchronized (FixtureServerListener.class) {
+            if (server != null && --remainingSuites <= 0) {
+                server.stop();
+                server = null;
+            }
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package listeners;
+
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+import utils.ScreenshotStore;
+import utils.ScreenshotWriter;
+
+/**
+ * ScreenshotWriterListener waits at the end of every suite until all
+ * screenshots queued by {@link ScreenshotWriter} are on disk, then appends the
+ * suite's captures to the {@link ScreenshotStore} index, so reports and later
+ * steps of the build see complete files.
+ *
+ * Register it in the suite XML:
+ * <pre>
+ * &lt;listeners&gt;
+ *     &lt;listener class-name="listeners.ScreenshotWriterListener" /&gt;
+ * &lt;/listeners&gt;
+ * </pre>
+ */
+public class ScreenshotWriterListener implements ISuiteListener {
+
+    @Override
+    public void onFinish(ISuite suite) {
+        ScreenshotWriter.getInstance().flush();
+        ScreenshotStore.getInstance().writeIndex();
+    }
+}
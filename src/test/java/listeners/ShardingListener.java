@@ -0,0 +1,216 @@
+package listeners;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+import org.testng.IAlterSuiteListener;
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+import org.testng.ISuiteResult;
+import org.testng.ITestContext;
+import org.testng.ITestResult;
+import org.testng.xml.SuiteXmlParser;
+import org.testng.xml.XmlClass;
+import org.testng.xml.XmlSuite;
+import org.testng.xml.XmlTest;
+import utils.ConfigReader;
+import utils.DurationHistory;
+
+/**
+ * ShardingListener splits the suite's test classes into {@code shardCount}
+ * shards and runs only shard {@code shardIndex} (0-based), so a run can be
+ * spread over several JVMs or build agents:
+ * <pre>
+ * mvn test -DshardCount=3 -DshardIndex=0   (agent 1)
+ * mvn test -DshardCount=3 -DshardIndex=1   (agent 2)
+ * mvn test -DshardCount=3 -DshardIndex=2   (agent 3)
+ * </pre>
+ *
+ * Classes are assigned longest-first to the least loaded shard, using the
+ * class durations in {@link DurationHistory} (classes without history count
+ * as average). Every agent computes the same assignment from the same history
+ * file, and every class runs in exactly one shard.
+ *
+ * The class list and each class's {@code url} come from {@code shardSuiteFile}
+ * (master.xml). When the suite is built from classes instead of that file
+ * (the {@code sharded} Maven profile, which forks one JVM per core), the url
+ * parameter is filled in from there. After every suite, the time spent in each
+ * class is added to the duration history.
+ *
+ * Register it in the suite XML, before the other listeners:
+ * <pre>
+ * &lt;listeners&gt;
+ *     &lt;listener class-name="listeners.ShardingListener" /&gt;
+ * &lt;/listeners&gt;
+ * </pre>
+ */
+public class ShardingListener implements IAlterSuiteListener, ISuiteListener {
+
+    /** Key prefix of class durations in the duration history */
+    public static final String CLASS_KEY_PREFIX = "class.";
+
+    private static final String DEFAULT_SUITE_FILE = "master.xml";
+
+    // ------------------------------------------
+    // Suite Configuration
+    // ------------------------------------------
+    @Override
+    public void alter(List<XmlSuite> suites) {
+        Map<String, String> suiteUrls = readSuiteFileUrls();
+        fillMissingUrls(suites, suiteUrls);
+
+        int shardCount = ConfigReader.getInt("shardCount", 1);
+        if (shardCount <= 1) {
+            return;
+        }
+        int shardIndex = ConfigReader.getInt("shardIndex", 0);
+        if (shardIndex < 0 || shardIndex >= shardCount) {
+            throw new IllegalArgumentException("shardIndex must be between 0 and " + (shardCount - 1) + ", was " + shardIndex);
+        }
+
+        // Every class in the suite file plus any class in this run, in a fixed order
+        Set<String> allClasses = new TreeSet<>(suiteUrls.keySet());
+        for (XmlSuite suite : suites) {
+            for (XmlTest test : suite.getTests()) {
+                test.getXmlClasses().forEach(xmlClass -> allClasses.add(xmlClass.getName()));
+            }
+        }
+
+        Set<String> shard = assignShard(allClasses, shardCount, shardIndex, DurationHistory.load());
+        for (XmlSuite suite : suites) {
+            keepOnly(suite, shard);
+        }
+        System.out.println("Running shard " + (shardIndex + 1) + " of " + shardCount + ": " + shard);
+    }
+
+    /**
+     * Splits the classes into shards, longest expected duration first, each
+     * going to the shard with the least total so far (lowest index on ties).
+     *
+     * @return The classes of shard {@code shardIndex}
+     */
+    static Set<String> assignShard(Set<String> classes, int shardCount, int shardIndex, DurationHistory history) {
+        List<String> keys = classes.stream().map(name -> CLASS_KEY_PREFIX + name).collect(Collectors.toList());
+        Map<String, Long> estimates = new HashMap<>();
+        for (String name : classes) {
+            estimates.put(name, history.estimate(CLASS_KEY_PREFIX + name, keys));
+        }
+
+        List<String> longestFirst = new ArrayList<>(classes);
+        longestFirst.sort(Comparator.comparing((String name) -> estimates.get(name)).reversed()
+                .thenComparing(Comparator.naturalOrder()));
+
+        long[] load = new long[shardCount];
+        Set<String> shard = new TreeSet<>();
+        for (String name : longestFirst) {
+            int target = 0;
+            for (int s = 1; s < shardCount; s++) {
+                if (load[s] < load[target]) {
+                    target = s;
+                }
+            }
+            load[target] += estimates.get(name);
+            if (target == shardIndex) {
+                shard.add(name);
+            }
+        }
+        return shard;
+    }
+
+    /** Removes classes outside the shard, and &lt;test&gt; blocks left without classes */
+    private void keepOnly(XmlSuite suite, Set<String> shard) {
+        List<XmlTest> emptyTests = new ArrayList<>();
+        for (XmlTest test : suite.getTests()) {
+            List<XmlClass> kept = test.getXmlClasses().stream()
+                    .filter(xmlClass -> shard.contains(xmlClass.getName()))
+                    .collect(Collectors.toList());
+            test.setXmlClasses(kept);
+            if (kept.isEmpty() && test.getXmlPackages().isEmpty()) {
+                emptyTests.add(test);
+            }
+        }
+        suite.getTests().removeAll(emptyTests);
+    }
+
+    // ------------------------------------------
+    // URL Parameters from the Suite File
+    // ------------------------------------------
+
+    /** Class name to url parameter, in suite file order; empty if the file cannot be read */
+    private static Map<String, String> readSuiteFileUrls() {
+        String configured = ConfigReader.get("shardSuiteFile");
+        Path suiteFile = Paths.get(configured == null || configured.isBlank() ? DEFAULT_SUITE_FILE : configured.trim());
+        Map<String, String> urls = new LinkedHashMap<>();
+        if (!Files.isRegularFile(suiteFile)) {
+            return urls;
+        }
+
+        try (InputStream in = Files.newInputStream(suiteFile)) {
+            XmlSuite suite = new SuiteXmlParser().parse(suiteFile.toString(), in, false);
+            for (XmlTest test : suite.getTests()) {
+                for (XmlClass xmlClass : test.getXmlClasses()) {
+                    urls.putIfAbsent(xmlClass.getName(), test.getParameter("url"));
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            System.out.println("Could not read " + suiteFile + " for sharding");
+            e.printStackTrace();
+        }
+        return urls;
+    }
+
+    /** Gives classes that run without a url parameter the url their &lt;test&gt; has in the suite file */
+    private void fillMissingUrls(List<XmlSuite> suites, Map<String, String> suiteUrls) {
+        for (XmlSuite suite : suites) {
+            for (XmlTest test : suite.getTests()) {
+                for (XmlClass xmlClass : test.getXmlClasses()) {
+                    String url = suiteUrls.get(xmlClass.getName());
+                    if (url != null && test.getParameter("url") == null
+                            && !xmlClass.getLocalParameters().containsKey("url")) {
+                        Map<String, String> parameters = new HashMap<>(xmlClass.getLocalParameters());
+                        parameters.put("url", url);
+                        xmlClass.setParameters(parameters);
+                    }
+                }
+            }
+        }
+    }
+
+    // ------------------------------------------
+    // Duration History
+    // ------------------------------------------
+
+    /** Adds the time spent in each class (tests and their setup/teardown) to the history */
+    @Override
+    public void onFinish(ISuite suite) {
+        Map<String, Long> classMillis = new HashMap<>();
+        for (ISuiteResult suiteResult : suite.getResults().values()) {
+            ITestContext context = suiteResult.getTestContext();
+            List<ITestResult> results = new ArrayList<>();
+            results.addAll(context.getPassedTests().getAllResults());
+            results.addAll(context.getFailedTests().getAllResults());
+            results.addAll(context.getSkippedTests().getAllResults());
+            results.addAll(context.getPassedConfigurations().getAllResults());
+            results.addAll(context.getFailedConfigurations().getAllResults());
+
+            for (ITestResult result : results) {
+                if (result.getTestClass() != null && result.getEndMillis() >= result.getStartMillis()) {
+                    classMillis.merge(CLASS_KEY_PREFIX + result.getTestClass().getName(),
+                            result.getEndMillis() - result.getStartMillis(), Long::sum);
+                }
+            }
+        }
+        DurationHistory.record(classMillis);
+    }
+}
@@ -1,19 +1,27 @@
 package pages;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptException;
 import org.openqa.selenium.JavascriptExecutor;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.FindBy;
 import org.openqa.selenium.support.PageFactory;
+import io.qameta.allure.Allure;
 
 /**
  * DatePickerPage contains methods to interact with a jQuery UI datepicker.
  * 
  * Includes scrolling to the datepicker, clicking it, retrieving selected date,
  * and selecting a specific date by navigating months and years.
+ * 
+ * selectDate jumps straight to the target month in a single script (through
+ * jQuery UI's own month navigation when the page has it), so dates years away cost
+ * the same as dates next month. The month-by-month click loop is kept as a
+ * fallback for when the jump cannot be verified.
  */
 
 public class DatePickerPage {
@@ -77,21 +85,111 @@ public class DatePickerPage {
 		months.put("December", 12);
 	}
 	
+	// ------------------------------------------
+	// Direct Month Navigation Script
+	// ------------------------------------------
+	// Moves the open calendar to the target month in one call: with jQuery UI's own month
+	// navigation (what its next/prev buttons call, so the input value is left alone) when the
+	// input has a jQuery UI datepicker, otherwise by clicking next/prev inside the browser.
+	// Returns [mode, month name shown, year shown] so the caller can verify where it ended up;
+	// a missing next/prev button just stops the clicking, and the caller falls back.
+	// arguments: [0] datepicker input, [1] target year, [2] target month (0-11)
+	private static final String NAVIGATE_SCRIPT =
+			  "var input = arguments[0], year = arguments[1], month = arguments[2];"
+			+ "function header(part) {"
+			+ "  var el = document.querySelector('.ui-datepicker-' + part);"
+			+ "  return el ? el.textContent.trim() : null;"
+			+ "}"
+			+ "var $ = window.jQuery;"
+			+ "var mode = 'clicks';"
+			+ "if ($ && $.datepicker && $(input).hasClass('hasDatepicker')) {"
+			+ "  var inst = $.datepicker._getInst(input), value = input.value;"
+			+ "  $.datepicker._adjustDate(input, year * 12 + month - (inst.drawYear * 12 + inst.drawMonth), 'M');"
+			+ "  input.value = value;"
+			+ "  mode = 'api';"
+			+ "} else {"
+			+ "  var names = ['January', 'February', 'March', 'April', 'May', 'June', 'July',"
+			+ "               'August', 'September', 'October', 'November', 'December'];"
+			+ "  var steps = year * 12 + month - (parseInt(header('year'), 10) * 12 + names.indexOf(header('month')));"
+			+ "  for (var i = 0; i < Math.abs(steps) && i < 1200; i++) {"
+			+ "    var button = document.querySelector('.ui-icon-circle-triangle-' + (steps > 0 ? 'e' : 'w'));"
+			+ "    if (!button) { break; }"
+			+ "    button.click();"
+			+ "  }"
+			+ "}"
+			+ "return [mode, header('month'), header('year')];";
+	
 	// ------------------------------------------
 	// Advanced Date Selection
 	// ------------------------------------------
 	/**
-	 * Selects a specific date from the datepicker by navigating through months and years.
+	 * Selects a specific date from the datepicker, jumping to the target month
+	 * in one script instead of clicking through the months in between. Falls
+	 * back to {@link #selectDateByClicking} navigation if the calendar does not
+	 * show the target month afterwards.
 	 * 
 	 * @param expectedMonth Month to select (e.g., "January")
 	 * @param expectedDate Day of the month to select (e.g., "15")
 	 * @param expectedYear Year to select (e.g., "2025")
 	 */
 	public void selectDate(String expectedMonth, String expectedDate, String expectedYear) {
+		showMonth(expectedMonth, expectedYear);
+		clickDay(expectedDate);
+	}
+	
+	/**
+	 * Moves the open calendar to a month without selecting a day, in one script
+	 * when possible. The input field keeps its current value.
+	 * 
+	 * @param expectedMonth Month to show (e.g., "January")
+	 * @param expectedYear Year to show (e.g., "2025")
+	 * @return How the calendar got there: "api" (jQuery UI navigation), "clicks"
+	 *         (next/prev clicked inside the browser) or "fallback" (month-by-month clicks)
+	 */
+	public String showMonth(String expectedMonth, String expectedYear) {
 		
 		int expectedMonthInt = months.get(expectedMonth);  // Convert month name to integer
 		int expectedYearInt = Integer.parseInt(expectedYear);  // Convert year string to integer
 		
+		// Jump to the target month and read back the month and year now displayed
+		List<?> shown;
+		try {
+			shown = (List<?>) js.executeScript(NAVIGATE_SCRIPT, input_datepicker, expectedYearInt, expectedMonthInt - 1);
+		} catch (JavascriptException e) {
+			// The page's datepicker does not behave as the script expects; the fallback below handles it
+			shown = null;
+		}
+		
+		// Verify the jump; if the calendar is elsewhere, navigate month by month
+		if (!isShowing(shown, expectedMonthInt, expectedYear)) {
+			Allure.step("Direct datepicker navigation ended at " + shown + ", navigating by clicks");
+			navigateByClicking(expectedMonthInt, expectedYearInt);
+			return "fallback";
+		}
+		return (String) shown.get(0);
+	}
+	
+	/** Whether the [mode, month, year] returned by the navigation script is the target month */
+	private static boolean isShowing(List<?> shown, int expectedMonthInt, String expectedYear) {
+		return shown != null && Integer.valueOf(expectedMonthInt).equals(months.get(shown.get(1)))
+				&& expectedYear.equals(shown.get(2));
+	}
+	
+	/**
+	 * Selects a specific date from the datepicker by navigating through months and years
+	 * one click at a time. Slower than {@link #selectDate}; kept as its fallback.
+	 * 
+	 * @param expectedMonth Month to select (e.g., "January")
+	 * @param expectedDate Day of the month to select (e.g., "15")
+	 * @param expectedYear Year to select (e.g., "2025")
+	 */
+	public void selectDateByClicking(String expectedMonth, String expectedDate, String expectedYear) {
+		navigateByClicking(months.get(expectedMonth), Integer.parseInt(expectedYear));
+		clickDay(expectedDate);
+	}
+	
+	private void navigateByClicking(int expectedMonthInt, int expectedYearInt) {
+		
 		while(true) {
 			
 			// Get the current month and year displayed on the datepicker
@@ -113,8 +211,10 @@ public class DatePickerPage {
 				prevBtn.click();
 			}
 		}
-		
-		// Click the expected date once the correct month/year is displayed
+	}
+	
+	/** Clicks the expected date once the correct month/year is displayed */
+	private void clickDay(String expectedDate) {
 		driver.findElement(By.xpath("//a[text()='" + expectedDate + "']")).click();
 	}
 
@@ -5,10 +5,10 @@ import org.openqa.selenium.JavascriptExecutor;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.FindBy;
-import org.openqa.selenium.support.PageFactory;
 import org.openqa.selenium.support.ui.Select;
 
 import base.BaseTest;
+import utils.CachingElementLocatorFactory;
 
 public class DropdownsPage {
 
@@ -21,7 +21,8 @@ public class DropdownsPage {
     public DropdownsPage(WebDriver driver, JavascriptExecutor js) {
         this.driver = driver;
         this.js = js;
-        PageFactory.initElements(driver, this);
+        // @FindBy elements are looked up once and reused until they go stale
+        CachingElementLocatorFactory.initElements(driver, this);
     }
 
     // ------------------------------------------
@@ -1,66 +1,83 @@
 package pages;
 
+import java.util.List;
+import org.openqa.selenium.By;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.FindBy;
 import org.openqa.selenium.support.PageFactory;
+import utils.FrameContext;
 
 public class FramesPage {
 
     WebDriver driver;
+    FrameContext frames;
 
     // ------------------------------------------
     // Constructor & PageFactory Initialization
     // ------------------------------------------
     public FramesPage(WebDriver driver) {
         this.driver = driver;
+        this.frames = FrameContext.of(driver);
         PageFactory.initElements(driver, this);
     }
 
     // ------------------------------------------
     // WebElement Locators
     // ------------------------------------------
-    @FindBy(xpath = "//frame[@src='frame_1.html']") WebElement frame1;
+    // Frames are switched through FrameContext, which takes locators rather than elements
+    private static final String[] FRAME_XPATHS = {
+            "//frame[@src='frame_1.html']",
+            "//frame[@src='frame_2.html']",
+            "//frame[@src='frame_3.html']",
+            "//frame[@src='frame_4.html']",
+            "//frame[@src='frame_5.html']"
+    };
 
-    @FindBy(xpath = "//frame[@src='frame_2.html']") WebElement frame2;
+    private static final String INPUT_FRAME_XPATH = "//input[contains(@name, 'mytext')]";
 
-    @FindBy(xpath = "//frame[@src='frame_3.html']") WebElement frame3;
-
-    @FindBy(xpath = "//frame[@src='frame_4.html']") WebElement frame4;
-
-    @FindBy(xpath = "//frame[@src='frame_5.html']") WebElement frame5;
-
-    @FindBy(xpath = "//input[contains(@name, 'mytext')]") WebElement input_frame;
+    @FindBy(xpath = INPUT_FRAME_XPATH) WebElement input_frame;
 
     // ------------------------------------------
     // Frame Switching Methods
     // ------------------------------------------
     public void switchToFrame(WebElement frame) {
         driver.switchTo().frame(frame);
+        // Switched without the tracker, so it no longer knows where the session is
+        frames.reset();
+    }
+
+    /** Switches to frame 1-5, skipping the switch if that frame is already current */
+    public void switchToFrame(int number) {
+        frames.switchTo(By.xpath(FRAME_XPATHS[number - 1]));
     }
 
     public void switchToFrame1() {
-        switchToFrame(frame1);
+        switchToFrame(1);
     }
 
     public void switchToFrame2() {
-        switchToFrame(frame2);
+        switchToFrame(2);
     }
 
     public void switchToFrame3() {
-        switchToFrame(frame3);
+        switchToFrame(3);
     }
 
     public void switchToFrame4() {
-        switchToFrame(frame4);
+        switchToFrame(4);
     }
 
     public void switchToFrame5() {
-        switchToFrame(frame5);
+        switchToFrame(5);
     }
 
     public void switchToDefaultContent() {
-        driver.switchTo().defaultContent();
+        frames.switchToDefaultContent();
+    }
+
+    public FrameContext getFrameContext() {
+        return frames;
     }
 
     // ------------------------------------------
@@ -69,4 +86,14 @@ public class FramesPage {
     public void sendKeysToFrame(String message) {
         input_frame.sendKeys(message);
     }
+
+    /** Values of the input fields of all five frames, read in one script without switching frames */
+    public List<String> getAllFrameInputValues() {
+        return frames.readFromFrames(INPUT_FRAME_XPATH, "value", FRAME_XPATHS);
+    }
+
+    /** Types into the named input in whichever frame holds it, found with one script and a single frame switch */
+    public void sendKeysToInputInAnyFrame(String inputName, String message) {
+        frames.findElementInAnyFrame(By.name(inputName)).sendKeys(message);
+    }
 }
@@ -4,21 +4,29 @@ import org.openqa.selenium.JavascriptExecutor;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.FindBy;
-import org.openqa.selenium.support.PageFactory;
 import base.BaseTest;
+import utils.CachingElementLocatorFactory;
 
 public class LocatorsPage {
 
     WebDriver driver;
     JavascriptExecutor js;
 
+    // @FindBy elements are looked up once and reused until they go stale
+    CachingElementLocatorFactory locatorCache;
+
     // ------------------------------------------
     // Constructor & PageFactory Initialization
     // ------------------------------------------
     public LocatorsPage(WebDriver driver, JavascriptExecutor js) {
         this.driver = driver;
         this.js = js;
-        PageFactory.initElements(driver, this);
+        locatorCache = CachingElementLocatorFactory.initElements(driver, this);
+    }
+
+    /** Returns the element cache, for hit/miss statistics or explicit invalidation */
+    public CachingElementLocatorFactory getLocatorCache() {
+        return locatorCache;
     }
 
     // ------------------------------------------
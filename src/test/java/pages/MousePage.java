@@ -7,8 +7,8 @@ import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.interactions.Actions;
 import org.openqa.selenium.support.FindBy;
-import org.openqa.selenium.support.PageFactory;
 import base.BaseTest;
+import utils.CachingElementLocatorFactory;
 
 public class MousePage {
 
@@ -23,7 +23,8 @@ public class MousePage {
         this.driver = driver;
         this.js = js;
         this.act = act;
-        PageFactory.initElements(driver, this);
+        // @FindBy elements are looked up once and reused until they go stale
+        CachingElementLocatorFactory.initElements(driver, this);
     }
 
     // ------------------------------------------
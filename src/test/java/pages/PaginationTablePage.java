@@ -2,12 +2,14 @@ package pages;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.Stream;
 import org.openqa.selenium.By;
 import org.openqa.selenium.JavascriptExecutor;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.FindBy;
 import org.openqa.selenium.support.PageFactory;
+import utils.TableReader;
 
 /**
  * PaginationTablePage contains methods to interact with a paginated HTML table.
@@ -20,6 +22,13 @@ public class PaginationTablePage {
     WebDriver driver;
     JavascriptExecutor js;
 
+    // Time spent on each page during the last pagination run, in page order
+    private final List<Double> pageTimingsMillis = new ArrayList<>();
+
+    private static final String PAGINATION_LINKS = "//ul[@id='pagination']//a";
+    private static final String TABLE_ROWS = "//table[@id='productTable']//tr";
+    private static final String TABLE_CHECKBOXES = "//table[@id='productTable']//tr//input[1]";
+
     // ------------------------------------------
     // Constructor & PageFactory Initialization
     // ------------------------------------------
@@ -74,9 +83,26 @@ public class PaginationTablePage {
         return allTableData;
     }
 
+    /**
+     * Streams the data rows of a table, fetching them from the browser in batches
+     * instead of materializing the whole table. Empty cells are left out, as in
+     * readAllDataFromTable.
+     * 
+     * @param tableXPath XPath to locate table rows (<tr> elements)
+     * @param batchSize Number of rows fetched per round trip
+     */
+    public Stream<List<String>> streamRows(String tableXPath, int batchSize) {
+        return TableReader.streamRows(js, tableXPath, batchSize, true);
+    }
+
+    /** Streams the rows of the current page of the paginated table */
+    public Stream<List<String>> streamRowsFromPaginationTable() {
+        return streamRows(TABLE_ROWS, TableReader.defaultBatchSize());
+    }
+
     /** Reads all data from the main paginated table */
     public List<List<String>> readAllDataFromPaginationTable() {
-        return readAllDataFromTable("//table[@id='productTable']//tr");
+        return readAllDataFromTable(TABLE_ROWS);
     }
 
     // ------------------------------------------
@@ -128,11 +154,14 @@ public class PaginationTablePage {
      */
     public List<List<List<String>>> beginPagination() throws InterruptedException {
         List<List<List<String>>> allTableData = new ArrayList<>();
+        pageTimingsMillis.clear();
 
         // Get total number of pages
-        int pageCount = getPageCount("//ul[@id='pagination']//a");
+        int pageCount = getPageCount(PAGINATION_LINKS);
 
         for (int p = 1; p <= pageCount; p++) {
+            long start = System.nanoTime();
+
             // Click on page number if not the first page
             if (p > 1) {
                 WebElement button = driver.findElement(By.xpath("//ul[@id='pagination']//a[normalize-space()=" + p + "]"));
@@ -143,11 +172,34 @@ public class PaginationTablePage {
             List<List<String>> tableData = readAllDataFromPaginationTable();
 
             // Select all checkboxes on the current page
-            selectCheckbox("//table[@id='productTable']//tr//input[1]");
+            selectCheckbox(TABLE_CHECKBOXES);
 
             allTableData.add(tableData);
+            pageTimingsMillis.add((System.nanoTime() - start) / 1_000_000.0);
         }
 
         return allTableData;
     }
+
+    /**
+     * Reads every page of the paginated table in a single JavaScript call.
+     * The script clicks each page link in the browser and reads the table after
+     * each click, so the whole run costs one WebDriver round trip.
+     * 
+     * @param selectCheckboxes Whether to select all checkboxes on each page, as beginPagination does
+     * @return List of table data for each page (3D list: pages -> rows -> columns)
+     */
+    public List<List<List<String>>> readAllPagesInSingleScript(boolean selectCheckboxes) {
+        pageTimingsMillis.clear();
+        return TableReader.readPages(js, PAGINATION_LINKS, TABLE_ROWS,
+                selectCheckboxes ? TABLE_CHECKBOXES : null, pageTimingsMillis);
+    }
+
+    /**
+     * Returns the time spent on each page during the last pagination run,
+     * in page order (in-browser time for the single-script read).
+     */
+    public List<Double> getPageTimingsMillis() {
+        return new ArrayList<>(pageTimingsMillis);
+    }
 }
@@ -1,15 +1,13 @@
 package pages;
 
-import java.io.File;
-import java.io.IOException;
-import java.text.SimpleDateFormat;
-import java.util.Date;
-import org.apache.commons.io.FileUtils;
+import java.nio.file.Path;
 import org.openqa.selenium.By;
 import org.openqa.selenium.OutputType;
 import org.openqa.selenium.TakesScreenshot;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
+import utils.ScreenshotStore;
+import utils.ScreenshotWriter;
 
 public class ScreenshotsPage {
 
@@ -29,45 +27,46 @@ public class ScreenshotsPage {
     // -------------------------
 
     /**
-     * Captures a screenshot of the entire page and saves it with a timestamp.
+     * Captures a screenshot of the entire page and stores it by content hash.
+     * The file is written in the background by {@link ScreenshotWriter};
+     * call its flush() before reading it.
      *
      * @param driver   WebDriver instance
-     * @param fileName Base name of the file (without extension)
-     * @throws IOException if an error occurs during file copying
+     * @param fileName Step name recorded in the screenshot index
+     * @return The file the screenshot is written to
      */
-    public void captureFullPage(WebDriver driver, String fileName) throws IOException {
-        String timestamp = new SimpleDateFormat("yyyyMMdd_HHmmss").format(new Date());
-        String finalFileName = "screenshots/" + fileName + "_" + timestamp + ".png";
-
+    public Path captureFullPage(WebDriver driver, String fileName) {
         TakesScreenshot ts = (TakesScreenshot) driver;
-        File src = ts.getScreenshotAs(OutputType.FILE);
-        File dest = new File(finalFileName);
-        FileUtils.copyFile(src, dest);
+        byte[] png = ts.getScreenshotAs(OutputType.BYTES);
+        return save(png, fileName);
     }
 
     /**
-     * Captures a screenshot of a specific WebElement and saves it with a timestamp.
+     * Captures a screenshot of a specific WebElement and stores it by content hash.
+     * The file is written in the background by {@link ScreenshotWriter};
+     * call its flush() before reading it.
      *
      * @param driver   WebDriver instance
      * @param element  WebElement to capture
-     * @param fileName Base name of the file (without extension)
-     * @throws IOException if an error occurs during file copying
+     * @param fileName Step name recorded in the screenshot index
+     * @return The file the screenshot is written to
      */
-    public void captureElement(WebDriver driver, WebElement element, String fileName) throws IOException {
-        String timestamp = new SimpleDateFormat("yyyyMMdd_HHmmss").format(new Date());
-        String finalFileName = "screenshots/" + fileName + "_" + timestamp + ".png";
+    public Path captureElement(WebDriver driver, WebElement element, String fileName) {
+        byte[] png = element.getScreenshotAs(OutputType.BYTES);
+        return save(png, fileName);
+    }
 
-        File src = element.getScreenshotAs(OutputType.FILE);
-        File dest = new File(finalFileName);
-        FileUtils.copyFile(src, dest);
+    /** Stores the PNG in {@link ScreenshotStore}, which skips images it already has */
+    private Path save(byte[] png, String fileName) {
+        return ScreenshotStore.getInstance().store(png, fileName);
     }
 
     // -------------------------
     // Specific Element Capture
     // -------------------------
-    public void captureLogoElement() throws IOException {
+    public Path captureLogoElement() {
         WebElement elementToCapture = driver.findElement(By.xpath("//img[@src='/images/Toolsqa.jpg']"));
-        captureElement(driver, elementToCapture, "ElementToCapture");
+        return captureElement(driver, elementToCapture, "ElementToCapture");
     }
 
 }
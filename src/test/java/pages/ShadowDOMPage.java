@@ -1,12 +1,14 @@
 package pages;
 
-import org.openqa.selenium.By;
 import org.openqa.selenium.JavascriptExecutor;
 import org.openqa.selenium.SearchContext;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.FindBy;
-import org.openqa.selenium.support.PageFactory;
+import utils.ByShadow;
+import utils.CachingElementLocatorFactory;
+import utils.FindByShadow;
+import utils.ShadowRootCache;
 
 /**
  * ShadowDOMPage contains methods to interact with elements inside Shadow DOM.
@@ -14,12 +16,18 @@ import org.openqa.selenium.support.PageFactory;
  * Provides functionality to read text from spans, links, and divs, 
  * interact with input fields, checkboxes, and file inputs within Shadow DOM.
  * 
- * Includes support for nested Shadow DOM elements.
+ * Includes support for nested Shadow DOM elements. The shadow elements are
+ * declared with {@link FindByShadow}; all of them are resolved together in one
+ * script the first time one is used, and cached afterwards. The shadow hosts
+ * found on the way are kept in the page's {@link ShadowRootCache}, which
+ * later lookups (a field whose element went stale, or an ad-hoc path through
+ * {@link #locateShadowDOMElement}) query directly while the host stays attached.
  */
 public class ShadowDOMPage {
 
     WebDriver driver;
     JavascriptExecutor js;
+    CachingElementLocatorFactory locatorCache;
 
     // ------------------------------------------
     // Constructor & PageFactory Initialization
@@ -27,17 +35,49 @@ public class ShadowDOMPage {
     
     /**
      * Constructor initializes the WebDriver and JavascriptExecutor.
-     * Also initializes PageFactory elements (e.g., shadowDOM element).
+     * Also initializes PageFactory elements (e.g., shadowDOM element and the
+     * shadow elements), with cached locators.
      */
     public ShadowDOMPage(WebDriver driver, JavascriptExecutor js) {
         this.driver = driver;
         this.js = js;
-        PageFactory.initElements(driver, this);
+        this.locatorCache = CachingElementLocatorFactory.initElements(driver, this);
+    }
+
+    /** Element cache of this page object, with hit/miss and shadow query statistics */
+    public CachingElementLocatorFactory getLocatorCache() {
+        return locatorCache;
+    }
+
+    /** Shadow hosts resolved by this page object, with hit/miss/invalidation statistics */
+    public ShadowRootCache getShadowRootCache() {
+        return locatorCache.getShadowRootCache();
     }
     
     // Example Shadow DOM container element
     @FindBy(xpath="//div[@id='HTML16']") 
     WebElement shadowDOM;
+
+    // ------------------------------------------
+    // Shadow DOM Elements (resolved together on first use)
+    // ------------------------------------------
+    @FindByShadow({"div#shadow_host", "span.info"})
+    WebElement shadowHostSpan;
+
+    @FindByShadow({"div#shadow_host", "div#nested_shadow_host", "div"})
+    WebElement nestedShadowHostDiv;
+
+    @FindByShadow({"div#shadow_host", "a"})
+    WebElement shadowHostLink;
+
+    @FindByShadow({"div#shadow_host", "input[type='text']"})
+    WebElement shadowHostTextInput;
+
+    @FindByShadow({"div#shadow_host", "input[type='checkbox']"})
+    WebElement shadowHostCheckboxInput;
+
+    @FindByShadow({"div#shadow_host", "input[type='file']"})
+    WebElement shadowHostFileInput;
     
     /**
      * Scrolls the page until the shadowDOM element is in view.
@@ -97,6 +137,8 @@ public class ShadowDOMPage {
 
     /**
      * Locates a WebElement inside Shadow DOM, supporting nested shadow hosts.
+     * The whole chain is resolved in a single script; lookups from the driver
+     * reuse the cached innermost shadow host while it stays attached.
      * 
      * @param context The starting SearchContext (usually the driver)
      * @param selectors CSS selectors for shadow hosts and final element
@@ -108,25 +150,13 @@ public class ShadowDOMPage {
      */
     public WebElement locateShadowDOMElement(SearchContext context, String... selectors) {
 
-        SearchContext currentContext = context;
-        WebElement element = null;
-
-        for (int i = 0; i < selectors.length; i++) {
-            String selector = selectors[i];
-
-            // If not the last selector, traverse into shadow root
-            if (i < selectors.length - 1) {
-                WebElement shadowHost = currentContext.findElement(By.cssSelector(selector));
-                
-                // ShadowRoot is the context for the next element
-                currentContext = shadowHost.getShadowRoot();
-            } 
-            // If last selector, locate the final element inside the last shadow root
-            else {
-                element = currentContext.findElement(By.cssSelector(selector));
-            }
+        // From the page itself, go through the shadow root cache
+        if (context == driver) {
+            return getShadowRootCache().findElement(selectors);
         }
-        return element;
+        
+        // From another element, resolve the path below it in one query
+        return context.findElement(ByShadow.path(selectors));
     }
 
     // ------------------------------------------
@@ -135,32 +165,32 @@ public class ShadowDOMPage {
 
     /** Locates <span> inside shadow host */
     public WebElement locateShadowHostSpanElement() {
-        return locateShadowDOMElement(driver, "div#shadow_host", "span.info");
+        return shadowHostSpan;
     }
 
     /** Locates <div> inside a nested shadow host */
     public WebElement locateNestedShadowHostDivElement() {
-        return locateShadowDOMElement(driver, "div#shadow_host", "div#nested_shadow_host", "div");
+        return nestedShadowHostDiv;
     }
 
     /** Locates <a> link inside shadow host */
     public WebElement locateShadowHostLinkElement() {
-        return locateShadowDOMElement(driver, "div#shadow_host", "a");
+        return shadowHostLink;
     }
 
     /** Locates text input inside shadow host */
     public WebElement locateShadowHostTextInputElement() {
-        return locateShadowDOMElement(driver, "div#shadow_host", "input[type='text']");
+        return shadowHostTextInput;
     }
 
     /** Locates checkbox input inside shadow host */
     public WebElement locateShadowHostCheckboxInputElement() {
-        return locateShadowDOMElement(driver, "div#shadow_host", "input[type='checkbox']");
+        return shadowHostCheckboxInput;
     }
 
     /** Locates file input element inside shadow host */
     public WebElement locateShadowHostFileInputElement() {
-        return locateShadowDOMElement(driver, "div#shadow_host", "input[type='file']");
+        return shadowHostFileInput;
     }
 
 }
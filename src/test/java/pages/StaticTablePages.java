@@ -2,15 +2,21 @@ package pages;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.Stream;
 import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
 import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.PageFactory;
+import utils.TableReader;
 
 public class StaticTablePages {
 	
 	WebDriver driver;
 	
+	private static final String BOOK_TABLE_ROWS = "//table[@name='BookTable']//tr";
+	
 	// ------------------------------------------
 	// Constructor & PageFactory Initialization
 	// ------------------------------------------
@@ -26,10 +32,35 @@ public class StaticTablePages {
 	/**
 	 * Reads all data from a static table located by a given XPath.
 	 * 
+	 * The whole table is pulled in one JavaScript call; if the script cannot run,
+	 * the table is read cell by cell instead.
+	 * 
 	 * @param tableXPath XPath of the table rows (usually ending with //tr)
 	 * @return List of lists, where each inner list represents a single row’s data.
 	 */
 	public List<List<String>> readAllDataFromTable(String tableXPath) {
+		if (driver instanceof JavascriptExecutor) {
+			try {
+				return TableReader.readRows((JavascriptExecutor) driver, tableXPath, false);
+			} catch (WebDriverException e) {
+				System.out.println("Bulk table read failed, reading cell by cell: " + e.getMessage());
+			}
+		}
+		return readAllDataFromTableByCell(tableXPath);
+	}
+	
+	
+	// ------------------------------------------
+	// Fallback Method: Read Table Cell by Cell
+	// ------------------------------------------
+	/**
+	 * Reads all data from a table with one WebDriver call per row and per cell.
+	 * Slower than {@link #readAllDataFromTable(String)}, but needs no JavaScript.
+	 * 
+	 * @param tableXPath XPath of the table rows (usually ending with //tr)
+	 * @return List of lists, where each inner list represents a single row’s data.
+	 */
+	public List<List<String>> readAllDataFromTableByCell(String tableXPath) {
 		List<List<String>> allData = new ArrayList<>(); // stores all table data
 		
 		List<WebElement> tableRows = driver.findElements(By.xpath(tableXPath)); // find all rows
@@ -53,6 +84,32 @@ public class StaticTablePages {
 	}
 	
 	
+	// ------------------------------------------
+	// Streaming Method: Read Table Rows Lazily
+	// ------------------------------------------
+	/**
+	 * Streams the data rows of a table, fetching them from the browser in batches.
+	 * Rows are read only as the stream is consumed, so large tables are never
+	 * fully held in memory and short-circuiting checks stop at the first mismatch.
+	 * 
+	 * @param tableXPath XPath of the table rows (usually ending with //tr)
+	 * @param batchSize Number of rows fetched per round trip
+	 * @return Stream of rows, where each row is a list of cell values.
+	 */
+	public Stream<List<String>> streamRows(String tableXPath, int batchSize) {
+		return TableReader.streamRows((JavascriptExecutor) driver, tableXPath, batchSize, false);
+	}
+	
+	/**
+	 * Streams the rows of the "BookTable" using the batch size from config.properties.
+	 * 
+	 * @return Stream of rows from the BookTable.
+	 */
+	public Stream<List<String>> streamRowsFromStaticTable() {
+		return streamRows(BOOK_TABLE_ROWS, TableReader.defaultBatchSize());
+	}
+	
+	
 	// ------------------------------------------
 	// Helper Method: Read All Data from Specific Static Table
 	// ------------------------------------------
@@ -62,7 +119,16 @@ public class StaticTablePages {
 	 * @return List of lists containing all row data from the BookTable.
 	 */
 	public List<List<String>> readAllDataFromStaticTable() {
-		return readAllDataFromTable("//table[@name='BookTable']//tr");
+		return readAllDataFromTable(BOOK_TABLE_ROWS);
+	}
+	
+	/**
+	 * Reads the "BookTable" cell by cell, without the single-script bulk read.
+	 * 
+	 * @return List of lists containing all row data from the BookTable.
+	 */
+	public List<List<String>> readAllDataFromStaticTableByCell() {
+		return readAllDataFromTableByCell(BOOK_TABLE_ROWS);
 	}
 	
 	
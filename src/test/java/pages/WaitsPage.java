@@ -1,17 +1,15 @@
 package pages;
 
 import java.time.Duration;
-import java.util.NoSuchElementException;
 import org.openqa.selenium.JavascriptExecutor;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.FindBy;
 import org.openqa.selenium.support.PageFactory;
 import org.openqa.selenium.support.ui.ExpectedConditions;
-import org.openqa.selenium.support.ui.FluentWait;
-import org.openqa.selenium.support.ui.WebDriverWait;
 
 import base.BaseTest;
+import utils.SmartWait;
 
 public class WaitsPage {
 
@@ -32,7 +30,9 @@ public class WaitsPage {
     // ------------------------------------------
     @FindBy(tagName = "button") WebElement button_start;
 
-    @FindBy(xpath = "//h4[normalize-space()='Hello World!']") WebElement h4_HelloWorld;
+    private static final String H4_HELLO_WORLD_XPATH = "//h4[normalize-space()='Hello World!']";
+
+    @FindBy(xpath = H4_HELLO_WORLD_XPATH) WebElement h4_HelloWorld;
 
     // ------------------------------------------
     // Generic Helper Methods
@@ -48,18 +48,20 @@ public class WaitsPage {
     // ------------------------------------------
     // Wait Methods
     // ------------------------------------------
+    // Both waits poll with adaptive backoff (a few ms at first, growing up to waitMaxPollMillis)
     public void startExplicitWait(WebElement element) {
-        WebDriverWait wait = new WebDriverWait(driver, Duration.ofSeconds(10));
-        wait.until(ExpectedConditions.visibilityOf(element));
+        SmartWait.webDriverWait(driver, Duration.ofSeconds(10))
+            .until(ExpectedConditions.visibilityOf(element));
     }
 
     public void startFluentWait(WebElement element) {
-        FluentWait<WebDriver> wait = new FluentWait<>(driver)
-            .withTimeout(Duration.ofSeconds(15))
-            .pollingEvery(Duration.ofSeconds(2))
-            .ignoring(NoSuchElementException.class);
+        SmartWait.fluentWait(driver, Duration.ofSeconds(15))
+            .until(ExpectedConditions.visibilityOf(element));
+    }
 
-        wait.until(ExpectedConditions.visibilityOf(element));
+    // Waits inside the browser and returns as soon as a DOM mutation makes the element visible
+    public void startMutationObserverWait(String xpath) {
+        SmartWait.untilVisibleInBrowser(driver, xpath, Duration.ofSeconds(15));
     }
 
     // ------------------------------------------
@@ -96,4 +98,8 @@ public class WaitsPage {
         startFluentWait(h4_HelloWorld);
     }
 
+    public void startMutationObserverWait_h4_HelloWorld() {
+        startMutationObserverWait(H4_HELLO_WORLD_XPATH);
+    }
+
 }
@@ -0,0 +1,177 @@
+package utils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.SearchContext;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.WrapsDriver;
+import org.openqa.selenium.WrapsElement;
+
+/**
+ * ByShadow locates elements behind one or more shadow roots in a single
+ * round trip.
+ *
+ * Each selector but the last names a shadow host inside the previous one's
+ * shadow root; the last selector is matched inside the innermost root. The
+ * whole chain is resolved by one script in the browser, instead of a
+ * findElement and a getShadowRoot call per level:
+ * <pre>
+ * driver.findElement(ByShadow.path("div#shadow_host", "div#nested_shadow_host", "div"));
+ * </pre>
+ * Only open shadow roots can be pierced.
+ */
+public class ByShadow extends By {
+
+    // Walks the host chain from a scope and returns the innermost host and the matches inside its root
+    private static final String RESOLVE_FUNCTION =
+            "function resolvePath(scope, selectors) {"
+          + "  var host = null;"
+          + "  for (var i = 0; i < selectors.length - 1; i++) {"
+          + "    host = scope.querySelector(selectors[i]);"
+          + "    if (!host) { return { failedLevel: i, reason: 'not found' }; }"
+          + "    if (!host.shadowRoot) { return { failedLevel: i, reason: 'has no open shadow root' }; }"
+          + "    scope = host.shadowRoot;"
+          + "  }"
+          + "  return { host: host, elements: Array.prototype.slice.call(scope.querySelectorAll(selectors[selectors.length - 1])) };"
+          + "}";
+
+    // arguments: [0] element to start from, or null for the document, [1] CSS selectors
+    private static final String QUERY_SCRIPT = RESOLVE_FUNCTION
+          + "return resolvePath(arguments[0] || document, arguments[1]);";
+
+    // arguments: [0] element to start from, or null for the document, [1] list of selector lists
+    private static final String QUERY_ALL_SCRIPT = RESOLVE_FUNCTION
+          + "var scope = arguments[0] || document;"
+          + "return arguments[1].map(function (selectors) { return resolvePath(scope, selectors); });";
+
+    private final String[] selectors;
+
+    private ByShadow(String[] selectors) {
+        if (selectors.length == 0) {
+            throw new IllegalArgumentException("A shadow path needs at least one selector");
+        }
+        this.selectors = selectors.clone();
+    }
+
+    /**
+     * Locator for the last selector, inside the shadow roots of the hosts before it.
+     *
+     * @param selectors CSS selectors of the shadow hosts, outermost first, then of the element
+     */
+    public static ByShadow path(String... selectors) {
+        return new ByShadow(selectors);
+    }
+
+    @Override
+    public List<WebElement> findElements(SearchContext context) {
+        try {
+            return query(executorFor(context), context instanceof WebElement ? (WebElement) context : null, selectors).elements;
+        } catch (NoSuchElementException e) {
+            // findElements reports a missing host the same way as a missing element
+            return Collections.emptyList();
+        }
+    }
+
+    @Override
+    public WebElement findElement(SearchContext context) {
+        List<WebElement> elements = query(executorFor(context),
+                context instanceof WebElement ? (WebElement) context : null, selectors).elements;
+        if (elements.isEmpty()) {
+            throw new NoSuchElementException("Cannot locate " + selectors[selectors.length - 1] + " in " + this);
+        }
+        return elements.get(0);
+    }
+
+    @Override
+    public String toString() {
+        return "By.shadowPath: " + String.join(" >> ", selectors);
+    }
+
+    // ------------------------------------------
+    // In-Browser Query
+    // ------------------------------------------
+
+    /** Innermost shadow host of a path (null for a single selector) and the elements matched inside it */
+    static final class Resolved {
+
+        final WebElement host;
+        final List<WebElement> elements;
+
+        // Why the path could not be followed, or null if it could
+        final String failure;
+
+        Resolved(WebElement host, List<WebElement> elements, String failure) {
+            this.host = host;
+            this.elements = elements;
+            this.failure = failure;
+        }
+    }
+
+    /**
+     * Runs the whole path in one script.
+     *
+     * @throws NoSuchElementException if a shadow host is missing or has no open shadow root
+     */
+    static Resolved query(JavascriptExecutor js, WebElement start, String[] selectors) {
+        Resolved resolved = toResolved(js.executeScript(QUERY_SCRIPT, start, Arrays.asList(selectors)), selectors);
+        if (resolved.failure != null) {
+            throw new NoSuchElementException(resolved.failure);
+        }
+        return resolved;
+    }
+
+    /** Runs several paths in one script; paths that cannot be followed come back with a failure */
+    static List<Resolved> queryAll(JavascriptExecutor js, WebElement start, List<String[]> paths) {
+        List<List<String>> selectorLists = new ArrayList<>();
+        paths.forEach(path -> selectorLists.add(Arrays.asList(path)));
+
+        List<?> results = (List<?>) js.executeScript(QUERY_ALL_SCRIPT, start, selectorLists);
+        List<Resolved> resolved = new ArrayList<>();
+        for (int i = 0; i < paths.size(); i++) {
+            resolved.add(toResolved(results.get(i), paths.get(i)));
+        }
+        return resolved;
+    }
+
+    private static Resolved toResolved(Object scriptResult, String[] selectors) {
+        Map<?, ?> result = (Map<?, ?>) scriptResult;
+        if (result.get("failedLevel") != null) {
+            int level = ((Number) result.get("failedLevel")).intValue();
+            return new Resolved(null, Collections.emptyList(), "Shadow host " + selectors[level] + " "
+                    + result.get("reason") + " (level " + (level + 1) + " of " + String.join(" >> ", selectors) + ")");
+        }
+        return new Resolved((WebElement) result.get("host"), toElements(result.get("elements")), null);
+    }
+
+    static List<WebElement> toElements(Object scriptResult) {
+        List<WebElement> elements = new ArrayList<>();
+        if (scriptResult instanceof List) {
+            for (Object item : (List<?>) scriptResult) {
+                elements.add((WebElement) item);
+            }
+        }
+        return elements;
+    }
+
+    /** The script executor behind a driver, an element, or a PageFactory proxy element */
+    static JavascriptExecutor executorFor(SearchContext context) {
+        SearchContext current = context;
+        while (!(current instanceof JavascriptExecutor) && !(current instanceof WrapsDriver)
+                && current instanceof WrapsElement) {
+            current = ((WrapsElement) current).getWrappedElement();
+        }
+        if (current instanceof JavascriptExecutor) {
+            return (JavascriptExecutor) current;
+        }
+        if (current instanceof WrapsDriver) {
+            return (JavascriptExecutor) ((WrapsDriver) current).getWrappedDriver();
+        }
+        throw new IllegalArgumentException("Cannot run scripts from " + context);
+    }
+}
@@ -0,0 +1,230 @@
+package utils;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.SearchContext;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.WrapsElement;
+import org.openqa.selenium.interactions.Locatable;
+import org.openqa.selenium.support.PageFactory;
+import org.openqa.selenium.support.pagefactory.DefaultFieldDecorator;
+import org.openqa.selenium.support.pagefactory.ElementLocator;
+import org.openqa.selenium.support.pagefactory.ElementLocatorFactory;
+
+/**
+ * CachingElementLocatorFactory is an opt-in replacement for PageFactory's
+ * default locator factory.
+ *
+ * The default proxies run findElement before every single call on a field.
+ * With this factory, each {@code @FindBy} element is looked up once per page
+ * object and reused. A cached element that turns stale (for example after a
+ * navigation or a re-render) is dropped, looked up again, and the call is
+ * retried once. {@link #invalidateAll()} clears the cache explicitly.
+ * List fields are still looked up on every access.
+ *
+ * {@link FindByShadow} fields are supported as well: locators come from a
+ * {@link ShadowElementLocatorFactory}, so all shadow fields of the page object
+ * are resolved together in one script the first time one of them is used.
+ *
+ * Usage in a page object constructor:
+ * <pre>
+ * locatorCache = CachingElementLocatorFactory.initElements(driver, this);
+ * </pre>
+ */
+public class CachingElementLocatorFactory implements ElementLocatorFactory {
+
+    private final ShadowElementLocatorFactory delegateFactory;
+    private final Map<Field, CachingElementLocator> locators = new ConcurrentHashMap<>();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong staleRetries = new AtomicLong();
+
+    public CachingElementLocatorFactory(SearchContext searchContext) {
+        this.delegateFactory = new ShadowElementLocatorFactory(searchContext);
+    }
+
+    /**
+     * Initializes a page object's {@code @FindBy} fields with cached locators.
+     *
+     * @param searchContext The driver (or element) to search from
+     * @param page          The page object to initialize
+     * @return The factory, for hit/miss statistics and explicit invalidation
+     */
+    public static CachingElementLocatorFactory initElements(SearchContext searchContext, Object page) {
+        CachingElementLocatorFactory factory = new CachingElementLocatorFactory(searchContext);
+        PageFactory.initElements(new CachingFieldDecorator(factory), page);
+        return factory;
+    }
+
+    @Override
+    public ElementLocator createLocator(Field field) {
+        return locators.computeIfAbsent(field,
+                f -> new CachingElementLocator(delegateFactory.createLocator(f)));
+    }
+
+    // ------------------------------------------
+    // Cache Control & Statistics
+    // ------------------------------------------
+
+    /** Drops every cached element, e.g. after navigating to another page */
+    public void invalidateAll() {
+        locators.values().forEach(CachingElementLocator::invalidate);
+        delegateFactory.reset();
+    }
+
+    /** Number of scripts run to resolve {@code @FindByShadow} fields */
+    public long getShadowQueries() {
+        return delegateFactory.getQueries();
+    }
+
+    /** Shadow hosts found for {@code @FindByShadow} fields, with hit/miss/invalidation statistics */
+    public ShadowRootCache getShadowRootCache() {
+        return delegateFactory.getShadowRootCache();
+    }
+
+    /** Number of element calls served from the cache */
+    public long getHits() {
+        return hits.get();
+    }
+
+    /** Number of element calls that needed a findElement round trip */
+    public long getMisses() {
+        return misses.get();
+    }
+
+    /** Number of calls retried after a cached element went stale */
+    public long getStaleRetries() {
+        return staleRetries.get();
+    }
+
+    @Override
+    public String toString() {
+        return "Locator cache: " + hits.get() + " hits, " + misses.get() + " misses, "
+                + staleRetries.get() + " stale retries";
+    }
+
+    // ------------------------------------------
+    // Caching Locator
+    // ------------------------------------------
+
+    /** Remembers the element found by the wrapped locator until it is invalidated */
+    private final class CachingElementLocator implements ElementLocator {
+
+        private final ElementLocator delegate;
+        private volatile WebElement cached;
+
+        CachingElementLocator(ElementLocator delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public WebElement findElement() {
+            WebElement element = cached;
+            if (element != null) {
+                hits.incrementAndGet();
+                return element;
+            }
+            misses.incrementAndGet();
+            element = delegate.findElement();
+            cached = element;
+            return element;
+        }
+
+        @Override
+        public List<WebElement> findElements() {
+            return delegate.findElements();
+        }
+
+        void invalidate() {
+            cached = null;
+        }
+
+        @Override
+        public String toString() {
+            return delegate.toString();
+        }
+    }
+
+    // ------------------------------------------
+    // Field Decoration
+    // ------------------------------------------
+
+    /** Field decorator whose element proxies retry once when a cached element is stale */
+    private static final class CachingFieldDecorator extends DefaultFieldDecorator {
+
+        private final CachingElementLocatorFactory factory;
+
+        CachingFieldDecorator(CachingElementLocatorFactory factory) {
+            super(factory);
+            this.factory = factory;
+        }
+
+        @Override
+        protected WebElement proxyForLocator(ClassLoader loader, ElementLocator locator) {
+            InvocationHandler handler = new StaleRetryingHandler(factory, (CachingElementLocator) locator);
+            return (WebElement) Proxy.newProxyInstance(
+                    loader, new Class<?>[] {WebElement.class, WrapsElement.class, Locatable.class}, handler);
+        }
+
+        @Override
+        protected boolean isDecoratableList(Field field) {
+            return super.isDecoratableList(field) || ShadowElementLocatorFactory.isShadowListField(field);
+        }
+    }
+
+    /** Invokes calls on the cached element, re-locating it once if it went stale */
+    private static final class StaleRetryingHandler implements InvocationHandler {
+
+        private final CachingElementLocatorFactory factory;
+        private final CachingElementLocator locator;
+
+        StaleRetryingHandler(CachingElementLocatorFactory factory, CachingElementLocator locator) {
+            this.factory = factory;
+            this.locator = locator;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if ("toString".equals(method.getName()) && method.getParameterCount() == 0) {
+                return "Cached proxy element for: " + locator;
+            }
+
+            try {
+                return invokeOnElement(method, args);
+            } catch (StaleElementReferenceException e) {
+                locator.invalidate();
+                factory.staleRetries.incrementAndGet();
+                return invokeOnElement(method, args);
+            }
+        }
+
+        private Object invokeOnElement(Method method, Object[] args) throws Throwable {
+            WebElement element;
+            try {
+                element = locator.findElement();
+            } catch (NoSuchElementException e) {
+                locator.invalidate();
+                throw e;
+            }
+
+            if ("getWrappedElement".equals(method.getName())) {
+                return element;
+            }
+            try {
+                return method.invoke(element, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package utils;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * CommandBudget caps how much work a {@code @Test} method may do. The test
+ * fails when its body sends more WebDriver commands, or runs longer, than
+ * budgeted, so a page-object change that adds round trips breaks the build
+ * instead of quietly slowing the suite down.
+ *
+ * Only the test method itself is measured, not setup or teardown. Demo-profile
+ * highlighting and pauses do not count. Enforced by
+ * listeners.CommandBudgetListener; the command limit needs commandMetrics=true.
+ *
+ * <pre>
+ * &#64;CommandBudget(maxCommands = 5, maxMillis = 2000)
+ * &#64;Test
+ * public void readTableInOneScript() { ... }
+ * </pre>
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface CommandBudget {
+
+    /** Most WebDriver commands the test may send; negative for no limit */
+    long maxCommands() default -1;
+
+    /** Most wall time the test may take, in milliseconds; negative for no limit */
+    long maxMillis() default -1;
+}
@@ -0,0 +1,277 @@
+package utils;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.json.Json;
+import org.openqa.selenium.support.events.EventFiringDecorator;
+import org.openqa.selenium.support.events.WebDriverListener;
+
+/**
+ * CommandMetrics records every WebDriver command sent through a decorated
+ * driver: how many of each command (findElement, getText, executeScript,
+ * click, ...) were issued and how long they took, as a
+ * {@link LatencyHistogram} per command.
+ *
+ * Commands are keyed by the running test method and by the page-object method
+ * that issued them (the first {@code pages.*} frame on the call stack; calls
+ * made directly from test code are grouped under {@value #TEST_CODE}).
+ * BaseTest decorates its driver and marks the start and end of each test;
+ * CommandMetricsListener attaches each test's numbers to the Allure report and
+ * writes the run report as JSON.
+ */
+public class CommandMetrics implements WebDriverListener {
+
+    /** Key for commands that were not issued from a page-object method */
+    public static final String TEST_CODE = "(test code)";
+
+    private static final String NO_TEST = "(no test)";
+    private static final String PAGE_OBJECT_PACKAGE = "pages.";
+
+    private static final CommandMetrics INSTANCE = new CommandMetrics();
+
+    // Finished tests: test method -> page-object method -> command -> stats
+    private final Map<String, Map<String, Map<String, CommandStats>>> tests = new ConcurrentHashMap<>();
+
+    // The test running on this thread and the metrics of its current invocation
+    private final ThreadLocal<String> currentTest = new ThreadLocal<>();
+    private final ThreadLocal<Map<String, Map<String, CommandStats>>> currentMetrics = new ThreadLocal<>();
+
+    // Start times of the commands in flight on this thread
+    private final ThreadLocal<Deque<Long>> startTimes = ThreadLocal.withInitial(ArrayDeque::new);
+
+    // Set while this thread runs commands that should not be recorded (see unmetered)
+    private final ThreadLocal<Boolean> suspended = ThreadLocal.withInitial(() -> false);
+
+    private CommandMetrics() {
+    }
+
+    public static CommandMetrics getInstance() {
+        return INSTANCE;
+    }
+
+    /** Wraps a driver so that every command it sends is recorded */
+    public static WebDriver decorate(WebDriver driver) {
+        return new EventFiringDecorator<>(INSTANCE).decorate(driver);
+    }
+
+    // ------------------------------------------
+    // Test Boundaries
+    // ------------------------------------------
+
+    /**
+     * Starts recording commands on the calling thread for a test method.
+     *
+     * @param testName Test key, e.g. "core.LocatorsTests.locateById"
+     */
+    public void startTest(String testName) {
+        currentTest.set(testName);
+        currentMetrics.set(new ConcurrentHashMap<>());
+        startTimes.get().clear();
+    }
+
+    /** Folds the current invocation into the run totals and stops recording on this thread */
+    public void endTest() {
+        String testName = currentTest.get();
+        Map<String, Map<String, CommandStats>> metrics = currentMetrics.get();
+        currentTest.remove();
+        currentMetrics.remove();
+        if (testName == null || metrics == null) {
+            return;
+        }
+
+        Map<String, Map<String, CommandStats>> totals = tests.computeIfAbsent(testName, k -> new ConcurrentHashMap<>());
+        metrics.forEach((pageMethod, commands) -> commands.forEach((command, stats) ->
+                totals.computeIfAbsent(pageMethod, k -> new ConcurrentHashMap<>())
+                      .computeIfAbsent(command, k -> new CommandStats())
+                      .add(stats)));
+    }
+
+    /**
+     * Runs an action without recording its commands, for helpers that only
+     * exist for the viewer (such as highlighting in the demo profile) and would
+     * otherwise count against the test's command budget.
+     */
+    public void unmetered(Runnable action) {
+        boolean wasSuspended = suspended.get();
+        suspended.set(true);
+        try {
+            action.run();
+        } finally {
+            suspended.set(wasSuspended);
+        }
+    }
+
+    // ------------------------------------------
+    // Recording
+    // ------------------------------------------
+    @Override
+    public void beforeAnyCall(Object target, Method method, Object[] args) {
+        if (suspended.get()) {
+            return;
+        }
+        if (RoundTripCounter.isRoundTrip(method)) {
+            startTimes.get().push(System.nanoTime());
+        }
+    }
+
+    @Override
+    public void afterAnyCall(Object target, Method method, Object[] args, Object result) {
+        if (RoundTripCounter.isRoundTrip(method)) {
+            record(method, false);
+        }
+    }
+
+    @Override
+    public void onError(Object target, Method method, Object[] args, InvocationTargetException e) {
+        if (RoundTripCounter.isRoundTrip(method)) {
+            record(method, true);
+        }
+    }
+
+    private void record(Method method, boolean failed) {
+        if (suspended.get()) {
+            return;
+        }
+        Long start = startTimes.get().poll();
+        if (start == null) {
+            return;
+        }
+        long micros = (System.nanoTime() - start) / 1000;
+
+        Map<String, Map<String, CommandStats>> metrics = currentMetrics.get();
+        if (metrics == null) {
+            // Commands outside a test (e.g. from a helper thread) still show up in the run report
+            metrics = tests.computeIfAbsent(NO_TEST, k -> new ConcurrentHashMap<>());
+        }
+        metrics.computeIfAbsent(callingPageMethod(), k -> new ConcurrentHashMap<>())
+               .computeIfAbsent(method.getName(), k -> new CommandStats())
+               .record(micros, failed);
+    }
+
+    /** "Class.method" of the innermost page-object frame on the stack, or TEST_CODE */
+    private static String callingPageMethod() {
+        return StackWalker.getInstance().walk(frames -> frames
+                .filter(frame -> frame.getClassName().startsWith(PAGE_OBJECT_PACKAGE))
+                .findFirst()
+                .map(frame -> frame.getClassName().substring(PAGE_OBJECT_PACKAGE.length())
+                        + "." + frame.getMethodName())
+                .orElse(TEST_CODE));
+    }
+
+    // ------------------------------------------
+    // Reports
+    // ------------------------------------------
+
+    /**
+     * Number of commands recorded so far for the test invocation running on
+     * this thread, or -1 if none is being recorded.
+     */
+    public long currentTestCommandCount() {
+        Map<String, Map<String, CommandStats>> metrics = currentMetrics.get();
+        if (metrics == null) {
+            return -1;
+        }
+        long count = 0;
+        for (Map<String, CommandStats> commands : metrics.values()) {
+            for (CommandStats stats : commands.values()) {
+                count += stats.latency.getCount();
+            }
+        }
+        return count;
+    }
+
+    /** JSON summary of the test invocation running on this thread, or null if none is being recorded */
+    public String currentTestJson() {
+        Map<String, Map<String, CommandStats>> metrics = currentMetrics.get();
+        if (metrics == null) {
+            return null;
+        }
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("test", currentTest.get());
+        report.put("totals", summarizeCommands(metrics));
+        report.put("pageMethods", summarizePageMethods(metrics));
+        return new Json().toJson(report);
+    }
+
+    /**
+     * JSON report of the whole run so far: per-command totals, then every test
+     * broken down by page-object method and command.
+     */
+    public String runJson() {
+        Map<String, CommandStats> allCommands = new TreeMap<>();
+        Map<String, Object> perTest = new TreeMap<>();
+        tests.forEach((testName, metrics) -> {
+            perTest.put(testName, summarizePageMethods(metrics));
+            mergeCommands(metrics, allCommands);
+        });
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("generatedAt", Instant.now().toString());
+        report.put("totals", summarize(allCommands));
+        report.put("tests", perTest);
+        return new Json().toJson(report);
+    }
+
+    /** command -> summary, merged over all page-object methods */
+    private static Map<String, Object> summarizeCommands(Map<String, Map<String, CommandStats>> metrics) {
+        Map<String, CommandStats> merged = new TreeMap<>();
+        mergeCommands(metrics, merged);
+        return summarize(merged);
+    }
+
+    private static void mergeCommands(Map<String, Map<String, CommandStats>> metrics, Map<String, CommandStats> into) {
+        metrics.values().forEach(commands -> commands.forEach((command, stats) ->
+                into.computeIfAbsent(command, k -> new CommandStats()).add(stats)));
+    }
+
+    private static Map<String, Object> summarize(Map<String, CommandStats> commands) {
+        Map<String, Object> summary = new TreeMap<>();
+        commands.forEach((command, stats) -> summary.put(command, stats.toSummary()));
+        return summary;
+    }
+
+    /** page-object method -> command -> summary */
+    private static Map<String, Object> summarizePageMethods(Map<String, Map<String, CommandStats>> metrics) {
+        Map<String, Object> summary = new TreeMap<>();
+        metrics.forEach((pageMethod, commands) -> summary.put(pageMethod, summarize(commands)));
+        return summary;
+    }
+
+    // ------------------------------------------
+    // Per-Command Statistics
+    // ------------------------------------------
+
+    /** Latency histogram of one command, plus how many of its calls failed */
+    private static final class CommandStats {
+
+        private final LatencyHistogram latency = new LatencyHistogram();
+        private final AtomicLong errors = new AtomicLong();
+
+        void record(long micros, boolean failed) {
+            latency.recordMicros(micros);
+            if (failed) {
+                errors.incrementAndGet();
+            }
+        }
+
+        void add(CommandStats other) {
+            latency.add(other.latency);
+            errors.addAndGet(other.errors.get());
+        }
+
+        Map<String, Object> toSummary() {
+            Map<String, Object> summary = latency.toSummary();
+            summary.put("errors", errors.get());
+            return summary;
+        }
+    }
+}
@@ -21,8 +21,58 @@ public class ConfigReader {
 		
 	}
 	
+	/**
+	 * Returns a config value. A JVM system property with the same name
+	 * (e.g. -DexecutionProfile=throughput) overrides config.properties.
+	 */
 	public static String get(String key) {
-		return prop.getProperty(key);
+		return System.getProperty(key, prop.getProperty(key));
+	}
+
+	/**
+	 * Returns the execution profile: "demo" (default) keeps visual pauses and
+	 * element highlighting, "throughput" turns both into no-ops.
+	 */
+	public static String getExecutionProfile() {
+		String profile = get("executionProfile");
+		return profile == null || profile.isBlank() ? "demo" : profile.trim().toLowerCase();
+	}
+
+	public static boolean isDemoProfile() {
+		return getExecutionProfile().equals("demo");
+	}
+
+	/**
+	 * Returns a config value as an int, or the default when the key is missing or blank.
+	 */
+	public static int getInt(String key, int defaultValue) {
+		String value = get(key);
+		if (value == null || value.isBlank()) {
+			return defaultValue;
+		}
+		return Integer.parseInt(value.trim());
+	}
+
+	/**
+	 * Returns a config value as a boolean, or the default when the key is missing or blank.
+	 */
+	public static boolean getBoolean(String key, boolean defaultValue) {
+		String value = get(key);
+		if (value == null || value.isBlank()) {
+			return defaultValue;
+		}
+		return Boolean.parseBoolean(value.trim());
+	}
+
+	/**
+	 * Returns a config value as a double, or the default when the key is missing or blank.
+	 */
+	public static double getDouble(String key, double defaultValue) {
+		String value = get(key);
+		if (value == null || value.isBlank()) {
+			return defaultValue;
+		}
+		return Double.parseDouble(value.trim());
 	}
 
 }
@@ -0,0 +1,164 @@
+package utils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+
+/**
+ * DurationHistory keeps how long tests took in earlier runs, so the suite can
+ * be split and ordered by expected duration.
+ *
+ * Durations are stored in milliseconds in a properties file
+ * ({@code durationHistoryFile}, target/test-durations.properties by default),
+ * smoothed over runs so that one slow run does not reshuffle everything.
+ * Updates lock the file, so forked JVMs can record their results at the same
+ * time. Keep the file between CI builds (e.g. as a cached artifact) so every
+ * run starts with the history of the previous one.
+ */
+public class DurationHistory {
+
+    private static final String DEFAULT_FILE = "target/test-durations.properties";
+
+    // Weight of the newest run in the smoothed duration
+    private static final double NEW_RUN_WEIGHT = 0.5;
+
+    private final Map<String, Long> durations;
+
+    private DurationHistory(Map<String, Long> durations) {
+        this.durations = durations;
+    }
+
+    // ------------------------------------------
+    // Loading
+    // ------------------------------------------
+
+    /** Loads the history file; a missing or unreadable file gives an empty history */
+    public static DurationHistory load() {
+        Path file = historyFile();
+        Map<String, Long> durations = new HashMap<>();
+        if (Files.isRegularFile(file)) {
+            try (InputStream in = Files.newInputStream(file)) {
+                Properties properties = new Properties();
+                properties.load(in);
+                readInto(properties, durations);
+            } catch (IOException e) {
+                System.out.println("Could not read test durations from " + file);
+                e.printStackTrace();
+            }
+        }
+        return new DurationHistory(durations);
+    }
+
+    private static Path historyFile() {
+        String configured = ConfigReader.get("durationHistoryFile");
+        return Paths.get(configured == null || configured.isBlank() ? DEFAULT_FILE : configured.trim());
+    }
+
+    private static void readInto(Properties properties, Map<String, Long> durations) {
+        for (String key : properties.stringPropertyNames()) {
+            try {
+                durations.put(key, Long.parseLong(properties.getProperty(key).trim()));
+            } catch (NumberFormatException e) {
+                // Skip entries that were edited by hand into something unreadable
+            }
+        }
+    }
+
+    // ------------------------------------------
+    // Lookups
+    // ------------------------------------------
+
+    /** Recorded duration in milliseconds, or null if the key has never run */
+    public Long get(String key) {
+        return durations.get(key);
+    }
+
+    /**
+     * Recorded duration, or the average of the given keys' known durations
+     * when this one has no history (1 ms if none of them do).
+     */
+    public long estimate(String key, Collection<String> peers) {
+        Long known = durations.get(key);
+        if (known != null) {
+            return known;
+        }
+        long total = 0;
+        int count = 0;
+        for (String peer : peers) {
+            Long duration = durations.get(peer);
+            if (duration != null) {
+                total += duration;
+                count++;
+            }
+        }
+        return count == 0 ? 1 : Math.max(1, total / count);
+    }
+
+    /** Sum of the durations whose key starts with the prefix, or null if there are none */
+    public Long sumWithPrefix(String prefix) {
+        Long sum = null;
+        for (Map.Entry<String, Long> entry : durations.entrySet()) {
+            if (entry.getKey().startsWith(prefix)) {
+                sum = (sum == null ? 0 : sum) + entry.getValue();
+            }
+        }
+        return sum;
+    }
+
+    // ------------------------------------------
+    // Recording
+    // ------------------------------------------
+
+    /**
+     * Merges the durations of a run into the history file. Each stored value
+     * moves halfway towards the new measurement.
+     *
+     * @param measured Key to duration in milliseconds
+     */
+    public static synchronized void record(Map<String, Long> measured) {
+        if (measured.isEmpty()) {
+            return;
+        }
+        Path file = historyFile();
+        try {
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+            try (FileChannel channel = FileChannel.open(file,
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                // Other JVMs (forked test runs) wait here; the lock is released when the channel closes
+                channel.lock();
+
+                Properties stored = new Properties();
+                stored.load(Channels.newInputStream(channel));
+                Map<String, Long> durations = new TreeMap<>();
+                readInto(stored, durations);
+
+                measured.forEach((key, millis) -> durations.merge(key, millis,
+                        (old, now) -> Math.round(old * (1 - NEW_RUN_WEIGHT) + now * NEW_RUN_WEIGHT)));
+
+                Properties updated = new Properties();
+                durations.forEach((key, millis) -> updated.setProperty(key, Long.toString(millis)));
+                channel.truncate(0);
+                channel.position(0);
+                OutputStream out = Channels.newOutputStream(channel);
+                updated.store(out, "Test durations in milliseconds (see utils.DurationHistory)");
+                out.flush();
+            }
+        } catch (IOException e) {
+            System.out.println("Could not update test durations in " + file);
+            e.printStackTrace();
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package utils;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.lang.reflect.Field;
+import org.openqa.selenium.By;
+import org.openqa.selenium.support.AbstractFindByBuilder;
+import org.openqa.selenium.support.PageFactoryFinder;
+
+/**
+ * FindByShadow declares a page object field located through one or more
+ * shadow roots, the way {@code @FindBy} declares a regular one:
+ * <pre>
+ * &#64;FindByShadow({"div#shadow_host", "div#nested_shadow_host", "div"})
+ * WebElement nestedDiv;
+ * </pre>
+ * Every selector but the last names a shadow host, outermost first; the last
+ * one is matched inside the innermost shadow root (see {@link ByShadow}).
+ *
+ * Plain {@code PageFactory.initElements} resolves such WebElement fields with
+ * one script per access. Initialized through {@link CachingElementLocatorFactory}
+ * (which uses {@link ShadowElementLocatorFactory}), the fields of a page object
+ * are resolved together in one script on first use, and List fields are
+ * supported as well.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.FIELD)
+@PageFactoryFinder(FindByShadow.Builder.class)
+public @interface FindByShadow {
+
+    /** CSS selectors of the shadow hosts, outermost first, then of the element */
+    String[] value();
+
+    /** Turns the annotation into a {@link ByShadow} for PageFactory */
+    class Builder extends AbstractFindByBuilder<FindByShadow> {
+
+        @Override
+        public By buildIt(FindByShadow annotation, Field field) {
+            return ByShadow.path(annotation.value());
+        }
+    }
+}
@@ -0,0 +1,204 @@
+package utils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * FixtureServer is a small embedded HTTP server that serves the local copies
+ * of the practice pages kept under src/test/resources/fixtures.
+ *
+ * Fixtures are laid out by host and path, so the copy of
+ * https://testautomationpractice.blogspot.com/ lives in
+ * fixtures/testautomationpractice.blogspot.com/index.html and is served at
+ * http://localhost:&lt;port&gt;/testautomationpractice.blogspot.com/.
+ *
+ * Form posts (such as the file upload page) are answered with the post.html
+ * next to the page's index.html, with {@code ${filenames}} replaced by the
+ * names of the uploaded files.
+ */
+public class FixtureServer {
+
+    public static final Path FIXTURE_ROOT = Paths.get("src/test/resources/fixtures");
+
+    // filename="..." in the Content-Disposition header of a multipart file part
+    private static final Pattern MULTIPART_FILENAME = Pattern.compile("filename=\"([^\"]*)\"");
+
+    private final HttpServer server;
+
+    private FixtureServer(HttpServer server) {
+        this.server = server;
+    }
+
+    // ------------------------------------------
+    // Lifecycle
+    // ------------------------------------------
+
+    /**
+     * Starts serving the fixture directory on localhost.
+     *
+     * @param port Port to listen on, or 0 for any free port
+     */
+    public static FixtureServer start(int port) throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        server.createContext("/", FixtureServer::serve);
+        server.setExecutor(Executors.newCachedThreadPool(task -> {
+            Thread thread = new Thread(task, "fixture-server");
+            thread.setDaemon(true);
+            return thread;
+        }));
+        server.start();
+        return new FixtureServer(server);
+    }
+
+    public void stop() {
+        server.stop(0);
+    }
+
+    /** Base URL of the server, e.g. http://localhost:54321 */
+    public String getBaseUrl() {
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+
+    /**
+     * Maps a public page URL to its local copy on this server, e.g.
+     * https://the-internet.herokuapp.com/upload to
+     * http://localhost:&lt;port&gt;/the-internet.herokuapp.com/upload.
+     *
+     * @param url Public page URL
+     * @return The local URL, or null if there is no fixture for that page
+     */
+    public String localUrlFor(String url) {
+        URI uri;
+        try {
+            uri = new URI(url.trim());
+        } catch (URISyntaxException e) {
+            return null;
+        }
+        if (uri.getHost() == null) {
+            return null;
+        }
+
+        String path = uri.getHost() + (uri.getRawPath() == null ? "" : uri.getRawPath());
+        if (resolve(path) == null) {
+            return null;
+        }
+        return getBaseUrl() + "/" + path + (uri.getRawQuery() == null ? "" : "?" + uri.getRawQuery());
+    }
+
+    // ------------------------------------------
+    // Request Handling
+    // ------------------------------------------
+    private static void serve(HttpExchange exchange) throws IOException {
+        try {
+            String requestPath = exchange.getRequestURI().getPath();
+            Path file = resolve(requestPath);
+            if (file == null) {
+                exchange.sendResponseHeaders(404, -1);
+                return;
+            }
+
+            // Like a regular web server, redirect "/dir" to "/dir/" so relative links in the page resolve
+            if (file.getFileName().toString().equals("index.html") && !requestPath.endsWith("/")
+                    && !requestPath.endsWith("index.html")) {
+                exchange.getResponseHeaders().set("Location", requestPath + "/");
+                exchange.sendResponseHeaders(301, -1);
+                return;
+            }
+
+            byte[] body;
+            if ("POST".equalsIgnoreCase(exchange.getRequestMethod())) {
+                Path postPage = file.resolveSibling("post.html");
+                if (!Files.isRegularFile(postPage)) {
+                    exchange.sendResponseHeaders(405, -1);
+                    return;
+                }
+                file = postPage;
+                body = renderPostPage(postPage, exchange.getRequestBody());
+            } else {
+                body = Files.readAllBytes(file);
+            }
+
+            exchange.getResponseHeaders().set("Content-Type", contentType(file));
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+
+    /**
+     * Maps a request path to a fixture file; directories map to their index.html.
+     *
+     * @return The fixture file, or null if there is none (or the path escapes the fixture root)
+     */
+    static Path resolve(String requestPath) {
+        Path root = FIXTURE_ROOT.toAbsolutePath().normalize();
+        Path file = root.resolve(requestPath.replaceFirst("^/+", "")).normalize();
+        if (!file.startsWith(root)) {
+            return null;
+        }
+        if (Files.isDirectory(file)) {
+            file = file.resolve("index.html");
+        }
+        return Files.isRegularFile(file) ? file : null;
+    }
+
+    /** Fills ${filenames} in the post page with the file names found in the multipart request body */
+    private static byte[] renderPostPage(Path postPage, InputStream requestBody) throws IOException {
+        // ISO-8859-1 maps every byte to one char, so binary file content cannot break the header search
+        String body = new String(requestBody.readAllBytes(), StandardCharsets.ISO_8859_1);
+        List<String> filenames = new ArrayList<>();
+        Matcher matcher = MULTIPART_FILENAME.matcher(body);
+        while (matcher.find()) {
+            if (!matcher.group(1).isEmpty()) {
+                filenames.add(escapeHtml(new String(matcher.group(1).getBytes(StandardCharsets.ISO_8859_1),
+                        StandardCharsets.UTF_8)));
+            }
+        }
+
+        String page = new String(Files.readAllBytes(postPage), StandardCharsets.UTF_8);
+        return page.replace("${filenames}", String.join("\n", filenames)).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String escapeHtml(String text) {
+        return text.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;").replace("\"", "&quot;");
+    }
+
+    private static String contentType(Path file) {
+        String name = file.getFileName().toString();
+        if (name.endsWith(".html")) {
+            return "text/html; charset=UTF-8";
+        }
+        if (name.endsWith(".js")) {
+            return "application/javascript";
+        }
+        if (name.endsWith(".css")) {
+            return "text/css";
+        }
+        if (name.endsWith(".png")) {
+            return "image/png";
+        }
+        if (name.endsWith(".jpg")) {
+            return "image/jpeg";
+        }
+        return "application/octet-stream";
+    }
+}
@@ -0,0 +1,290 @@
+package utils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.WrapsDriver;
+
+/**
+ * FrameContext keeps track of which frame a browser session is in, so page
+ * objects only call switchTo() when the next step needs a different frame.
+ *
+ * A frame is addressed by its path from the top document: one locator per
+ * level, each found inside the previous frame. Switching to the frame the
+ * session is already in costs nothing; switching between frames goes through
+ * the shortest route (parentFrame() to the common ancestor, or
+ * defaultContent()) and then down.
+ *
+ * The tracked frame is kept per browser session, shared by every page object
+ * and decorated driver of that session. Switch frames through this class only;
+ * after navigating (which puts the browser back in the top document) call
+ * {@link #markTopLevel()}, and after switching some other way call
+ * {@link #reset()}. BaseTest marks every session top-level after loading the
+ * test's url.
+ *
+ * {@link #readFromFrames} reads an element from several same-origin frames in
+ * one script, without switching into any of them. {@link #findElementInAnyFrame}
+ * finds an element whose frame is not known in advance: one script searches
+ * the top document and every same-origin frame and iframe, then the session
+ * switches straight to the frame that holds it.
+ */
+public class FrameContext {
+
+    // Reads one property of the first element matching an XPath in each frame; null where a frame
+    // is missing, cross-origin, or has no such element.
+    // arguments: [0] frame XPaths (from the top document), [1] element XPath, [2] property name
+    private static final String READ_FRAMES_SCRIPT =
+            "function first(doc, xpath) {"
+          + "  return doc.evaluate(xpath, doc, null, XPathResult.FIRST_ORDERED_NODE_TYPE, null).singleNodeValue;"
+          + "}"
+          + "var elementXPath = arguments[1], property = arguments[2];"
+          + "return arguments[0].map(function (frameXPath) {"
+          + "  var frame = first(document, frameXPath);"
+          + "  try {"
+          + "    var doc = frame && frame.contentDocument;"
+          + "    var element = doc && first(doc, elementXPath);"
+          + "    return element ? String(element[property]) : null;"
+          + "  } catch (e) { return null; }"
+          + "});";
+
+    // Searches the top document, then every same-origin frame and iframe (depth first, in document
+    // order) and returns the 1-based frame indexes leading to the first match: [] for the top document,
+    // null if nothing matched, or 'unreachable' if the top document is cross-origin to the current frame.
+    // arguments: [0] locator strategy (css selector, xpath, id, name, class name or tag name), [1] locator value
+    private static final String FIND_FRAME_SCRIPT =
+            "var using = arguments[0], value = arguments[1];"
+          + "function matches(doc) {"
+          + "  if (using === 'xpath') {"
+          + "    return doc.evaluate(value, doc, null, XPathResult.FIRST_ORDERED_NODE_TYPE, null).singleNodeValue;"
+          + "  }"
+          + "  if (using === 'id') { return doc.getElementById(value); }"
+          + "  if (using === 'name') { return doc.getElementsByName(value)[0]; }"
+          + "  if (using === 'class name') { return doc.getElementsByClassName(value)[0]; }"
+          + "  return using === 'tag name' ? doc.getElementsByTagName(value)[0] : doc.querySelector(value);"
+          + "}"
+          + "function search(doc, path) {"
+          + "  if (matches(doc)) { return path; }"
+          + "  var frames = doc.querySelectorAll('frame, iframe');"
+          + "  for (var i = 0; i < frames.length; i++) {"
+          + "    var child = null;"
+          + "    try { child = frames[i].contentDocument; } catch (e) { }"
+          + "    var found = child && search(child, path.concat([i + 1]));"
+          + "    if (found) { return found; }"
+          + "  }"
+          + "  return null;"
+          + "}"
+          + "var topDocument;"
+          + "try { topDocument = window.top.document; } catch (e) { return 'unreachable'; }"
+          + "return search(topDocument, []);";
+
+    // Tracked frame per browser session (the undecorated driver); a null path means unknown
+    private static final Map<WebDriver, State> STATES = new WeakHashMap<>();
+
+    private final WebDriver driver;
+    private final State state;
+
+    private FrameContext(WebDriver driver, State state) {
+        this.driver = driver;
+        this.state = state;
+    }
+
+    /**
+     * The frame context of a driver's browser session.
+     *
+     * @param driver The driver to send switch commands through (may be decorated)
+     */
+    public static FrameContext of(WebDriver driver) {
+        WebDriver session = driver;
+        while (session instanceof WrapsDriver) {
+            session = ((WrapsDriver) session).getWrappedDriver();
+        }
+        synchronized (STATES) {
+            return new FrameContext(driver, STATES.computeIfAbsent(session, key -> new State()));
+        }
+    }
+
+    // ------------------------------------------
+    // Switching
+    // ------------------------------------------
+
+    /**
+     * Makes the given frame current, switching only if the session is elsewhere.
+     *
+     * @param framePath Locators of the frame and its ancestors, outermost first
+     */
+    public void switchTo(By... framePath) {
+        List<By> target = Arrays.asList(framePath);
+        synchronized (state) {
+            List<By> current = state.path;
+            if (target.equals(current)) {
+                state.skipped.incrementAndGet();
+                return;
+            }
+
+            // Climb to the deepest shared ancestor with parentFrame(), unless starting over from the
+            // top document takes fewer commands (or the current frame is unknown)
+            int shared = current == null ? 0 : sharedPrefix(current, target);
+            int levelsUp = current == null ? Integer.MAX_VALUE : current.size() - shared;
+            List<By> reached;
+            if (levelsUp <= shared || levelsUp == 1) {
+                for (int i = 0; i < levelsUp; i++) {
+                    driver.switchTo().parentFrame();
+                    state.switches.incrementAndGet();
+                }
+                reached = new ArrayList<>(target.subList(0, shared));
+            } else {
+                driver.switchTo().defaultContent();
+                state.switches.incrementAndGet();
+                reached = new ArrayList<>();
+            }
+
+            // Then go down the rest of the path
+            state.path = null;
+            for (By frame : target.subList(reached.size(), target.size())) {
+                driver.switchTo().frame(driver.findElement(frame));
+                state.switches.incrementAndGet();
+                reached.add(frame);
+            }
+            state.path = Collections.unmodifiableList(reached);
+        }
+    }
+
+    /** Makes the top document current, switching only if the session is in a frame */
+    public void switchToDefaultContent() {
+        switchTo();
+    }
+
+    private static int sharedPrefix(List<By> first, List<By> second) {
+        int shared = 0;
+        while (shared < first.size() && shared < second.size() && first.get(shared).equals(second.get(shared))) {
+            shared++;
+        }
+        return shared;
+    }
+
+    // ------------------------------------------
+    // Tracking
+    // ------------------------------------------
+
+    /** Records that the session is in the top document, e.g. after a navigation */
+    public void markTopLevel() {
+        synchronized (state) {
+            state.path = Collections.emptyList();
+        }
+    }
+
+    /** Forgets the tracked frame, e.g. after a frame switch made without this class */
+    public void reset() {
+        synchronized (state) {
+            state.path = null;
+        }
+    }
+
+    /** Path of the current frame (empty in the top document), or null if unknown */
+    public List<By> getCurrentPath() {
+        synchronized (state) {
+            return state.path;
+        }
+    }
+
+    /** Number of switchTo() commands sent for this session */
+    public long getSwitches() {
+        return state.switches.get();
+    }
+
+    /** Number of switches skipped because the session was already in the target frame */
+    public long getSkippedSwitches() {
+        return state.skipped.get();
+    }
+
+    // ------------------------------------------
+    // Reading Several Frames at Once
+    // ------------------------------------------
+
+    /**
+     * Reads a property of an element in each of several same-origin frames, in
+     * one script run from the top document.
+     *
+     * @param elementXPath XPath of the element inside each frame
+     * @param property     DOM property to read, e.g. "value" or "textContent"
+     * @param frameXPaths  XPaths of the frames in the top document
+     * @return One value per frame, in order; null where the frame or element was not available
+     */
+    @SuppressWarnings("unchecked")
+    public List<String> readFromFrames(String elementXPath, String property, String... frameXPaths) {
+        switchToDefaultContent();
+        return (List<String>) ((JavascriptExecutor) driver)
+                .executeScript(READ_FRAMES_SCRIPT, Arrays.asList(frameXPaths), elementXPath, property);
+    }
+
+    // ------------------------------------------
+    // Searching Every Frame at Once
+    // ------------------------------------------
+
+    /**
+     * Finds an element in whichever frame holds it and switches there. One
+     * script searches the top document and all same-origin frames and iframes
+     * (nested ones included); the session then switches to the matching frame
+     * once, or not at all if it is already there.
+     *
+     * Frames found this way are tracked by position, e.g.
+     * {@code (//frame | //iframe)[2]} for the second frame of a document.
+     *
+     * @param locator A CSS selector, id, name, class name, tag name or XPath locator
+     * @throws NoSuchElementException if no reachable frame holds a matching element
+     */
+    public WebElement findElementInAnyFrame(By locator) {
+        List<By> path = findFramePath(locator);
+        if (path == null) {
+            throw new NoSuchElementException("Cannot locate " + locator + " in the page or any of its same-origin frames");
+        }
+        switchTo(path.toArray(new By[0]));
+        return driver.findElement(locator);
+    }
+
+    /** Locators of the frames leading to the first element matching a locator, or null if none matches */
+    private List<By> findFramePath(By locator) {
+        if (!(locator instanceof By.Remotable)) {
+            throw new IllegalArgumentException("Cannot search frames with " + locator);
+        }
+        By.Remotable.Parameters parameters = ((By.Remotable) locator).getRemoteParameters();
+        String using = parameters.using();
+        if (!Arrays.asList("css selector", "xpath", "id", "name", "class name", "tag name").contains(using)) {
+            throw new IllegalArgumentException("Cannot search frames by " + using + ": " + locator);
+        }
+
+        JavascriptExecutor js = (JavascriptExecutor) driver;
+        Object result = js.executeScript(FIND_FRAME_SCRIPT, using, parameters.value());
+        if ("unreachable".equals(result)) {
+            // The current frame cannot see the top document; search from there instead
+            switchToDefaultContent();
+            result = js.executeScript(FIND_FRAME_SCRIPT, using, parameters.value());
+        }
+        if (result == null) {
+            return null;
+        }
+
+        List<By> path = new ArrayList<>();
+        for (Object index : (List<?>) result) {
+            path.add(By.xpath("(//frame | //iframe)[" + ((Number) index).intValue() + "]"));
+        }
+        return path;
+    }
+
+    /** Tracked frame and counters of one browser session */
+    private static final class State {
+
+        List<By> path;
+        final AtomicLong switches = new AtomicLong();
+        final AtomicLong skipped = new AtomicLong();
+    }
+}
@@ -0,0 +1,126 @@
+package utils;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * LatencyHistogram records latencies in microseconds into log-linear buckets,
+ * in the style of an HDR histogram: values below {@value #SUB_BUCKETS} are
+ * stored exactly and every power-of-two range above that is split into 64
+ * equal buckets, so any recorded value is reported within 1/64 (about 1.5%)
+ * no matter how large it is, with a fixed memory footprint.
+ */
+public class LatencyHistogram {
+
+    // Values below this are stored exactly; each doubling above it gets half as many buckets
+    private static final int SUB_BUCKETS = 128;
+    private static final int SUB_BUCKET_BITS = 7;
+
+    // The exact buckets plus 64 buckets for each doubling up to Long.MAX_VALUE
+    private final long[] counts = new long[SUB_BUCKETS + (64 - SUB_BUCKET_BITS) * (SUB_BUCKETS / 2)];
+
+    private long totalCount;
+    private long totalMicros;
+    private long minMicros = Long.MAX_VALUE;
+    private long maxMicros;
+
+    // ------------------------------------------
+    // Recording
+    // ------------------------------------------
+    public synchronized void recordMicros(long micros) {
+        long value = Math.max(micros, 0);
+        counts[bucketIndex(value)]++;
+        totalCount++;
+        totalMicros += value;
+        minMicros = Math.min(minMicros, value);
+        maxMicros = Math.max(maxMicros, value);
+    }
+
+    /** Index of the bucket holding the value: exact below 128, then 64 buckets per doubling */
+    static int bucketIndex(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int shift = (63 - Long.numberOfLeadingZeros(value)) - (SUB_BUCKET_BITS - 1);
+        int subBucket = (int) (value >>> shift) - SUB_BUCKETS / 2;
+        return SUB_BUCKETS + (shift - 1) * (SUB_BUCKETS / 2) + subBucket;
+    }
+
+    /** Highest value that falls into the bucket, so percentiles never under-report */
+    static long bucketUpperBound(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int shift = (index - SUB_BUCKETS) / (SUB_BUCKETS / 2) + 1;
+        long subBucket = (index - SUB_BUCKETS) % (SUB_BUCKETS / 2) + SUB_BUCKETS / 2;
+        return ((subBucket + 1) << shift) - 1;
+    }
+
+    // ------------------------------------------
+    // Statistics
+    // ------------------------------------------
+    public synchronized long getCount() {
+        return totalCount;
+    }
+
+    public synchronized long getTotalMicros() {
+        return totalMicros;
+    }
+
+    /**
+     * Returns the value at the given percentile, e.g. 99.0 for p99.
+     *
+     * @param percentile Percentile between 0 and 100
+     * @return The latency in microseconds, or 0 if nothing was recorded
+     */
+    public synchronized long getValueAtPercentile(double percentile) {
+        if (totalCount == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(totalCount * Math.min(percentile, 100.0) / 100.0));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(Math.max(bucketUpperBound(i), minMicros), maxMicros);
+            }
+        }
+        return maxMicros;
+    }
+
+    /** Adds every value recorded in another histogram to this one */
+    public void add(LatencyHistogram other) {
+        long[] otherCounts;
+        long otherTotal, otherMicros, otherMin, otherMax;
+        synchronized (other) {
+            otherCounts = other.counts.clone();
+            otherTotal = other.totalCount;
+            otherMicros = other.totalMicros;
+            otherMin = other.minMicros;
+            otherMax = other.maxMicros;
+        }
+        synchronized (this) {
+            for (int i = 0; i < counts.length; i++) {
+                counts[i] += otherCounts[i];
+            }
+            totalCount += otherTotal;
+            totalMicros += otherMicros;
+            minMicros = Math.min(minMicros, otherMin);
+            maxMicros = Math.max(maxMicros, otherMax);
+        }
+    }
+
+    /** Count, total, min, mean, p50, p90, p99 and max, ready to be written as JSON */
+    public synchronized Map<String, Object> toSummary() {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("count", totalCount);
+        summary.put("totalMillis", totalMicros / 1000.0);
+        summary.put("minMicros", totalCount == 0 ? 0 : minMicros);
+        summary.put("meanMicros", totalCount == 0 ? 0 : totalMicros / totalCount);
+        summary.put("p50Micros", getValueAtPercentile(50));
+        summary.put("p90Micros", getValueAtPercentile(90));
+        summary.put("p99Micros", getValueAtPercentile(99));
+        summary.put("maxMicros", maxMicros);
+        return summary;
+    }
+}
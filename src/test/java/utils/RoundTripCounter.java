@@ -0,0 +1,42 @@
+package utils;
+
+import java.lang.reflect.Method;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import org.openqa.selenium.support.events.WebDriverListener;
+
+/**
+ * RoundTripCounter counts the WebDriver commands sent through a driver
+ * decorated with EventFiringDecorator. Calls that only return a local helper
+ * object (manage(), switchTo(), navigate(), ...) are not counted.
+ */
+public class RoundTripCounter implements WebDriverListener {
+
+    // Methods that build a local wrapper or read local state without an HTTP request
+    private static final Set<String> LOCAL_CALLS = Set.of(
+            "manage", "switchTo", "navigate", "timeouts", "window", "logs",
+            "getWrappedDriver", "getWrappedElement", "getCoordinates",
+            "toString", "hashCode", "equals");
+
+    private final AtomicLong roundTrips = new AtomicLong();
+
+    /** Returns true if the call sends a command to the browser */
+    static boolean isRoundTrip(Method method) {
+        return !LOCAL_CALLS.contains(method.getName());
+    }
+
+    @Override
+    public void beforeAnyCall(Object target, Method method, Object[] args) {
+        if (isRoundTrip(method)) {
+            roundTrips.incrementAndGet();
+        }
+    }
+
+    public long get() {
+        return roundTrips.get();
+    }
+
+    public void reset() {
+        roundTrips.set(0);
+    }
+}
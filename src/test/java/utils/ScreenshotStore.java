@@ -0,0 +1,159 @@
+package utils;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import org.openqa.selenium.json.Json;
+import org.openqa.selenium.json.JsonOutput;
+import org.testng.ITestResult;
+import org.testng.Reporter;
+
+/**
+ * ScreenshotStore saves screenshots under the SHA-256 of their PNG bytes, so
+ * an image that is captured again (the same page, the same element) is stored
+ * only once, and two captures can never overwrite each other, whatever thread
+ * or JVM they come from.
+ *
+ * Images go to screenshots/images/&lt;hash&gt;.png through {@link ScreenshotWriter}.
+ * Which test and step produced which image is kept in screenshots/index.jsonl,
+ * one JSON object per capture:
+ * <pre>
+ * {"time": "2026-01-01T10:00:00Z","test": "core.ScreenshotsTests.captureFullPageTest","step": "FullPage_Home","hash": "9f86d0..."}
+ * </pre>
+ * Index lines are collected in memory and appended when {@link #writeIndex()}
+ * runs (ScreenshotWriterListener calls it at the end of every suite); the file
+ * is locked while appending, so forked JVMs can share it.
+ */
+public class ScreenshotStore {
+
+    private static final ScreenshotStore INSTANCE = new ScreenshotStore();
+
+    private static final Path ROOT = Paths.get("screenshots");
+    private static final Path IMAGES = ROOT.resolve("images");
+    private static final Path INDEX = ROOT.resolve("index.jsonl");
+
+    private static final String NO_TEST = "(no test)";
+
+    // Hashes already written (or queued) by this JVM; dropped again if their write fails
+    private final Set<String> knownHashes = ConcurrentHashMap.newKeySet();
+
+    // Index entries not yet appended to the index file
+    private final ConcurrentLinkedQueue<Map<String, String>> pendingEntries = new ConcurrentLinkedQueue<>();
+
+    private ScreenshotStore() {
+        Runtime.getRuntime().addShutdownHook(new Thread(this::writeIndex, "screenshot-index-shutdown"));
+    }
+
+    public static ScreenshotStore getInstance() {
+        return INSTANCE;
+    }
+
+    // ------------------------------------------
+    // Storing Images
+    // ------------------------------------------
+
+    /**
+     * Stores a screenshot for the running test, writing the image only if
+     * this content has not been stored before.
+     *
+     * @param png  PNG bytes, as returned by getScreenshotAs(OutputType.BYTES)
+     * @param step Name of the capture within the test, e.g. "FullPage_Home"
+     * @return The content-addressed file of the image (written in the background)
+     */
+    public Path store(byte[] png, String step) {
+        String hash = sha256(png);
+        Path image = IMAGES.resolve(hash + ".png");
+        if (knownHashes.add(hash) && !Files.exists(image)) {
+            // Forget the hash if the write fails, so the next capture of this image tries again
+            ScreenshotWriter.getInstance().write(png, image, () -> knownHashes.remove(hash));
+        }
+
+        Map<String, String> entry = new LinkedHashMap<>();
+        entry.put("time", Instant.now().toString());
+        entry.put("test", currentTestName());
+        entry.put("step", step);
+        entry.put("hash", hash);
+        pendingEntries.add(entry);
+        return image;
+    }
+
+    private static String currentTestName() {
+        ITestResult result = Reporter.getCurrentTestResult();
+        return result == null ? NO_TEST : result.getMethod().getQualifiedName();
+    }
+
+    static String sha256(byte[] bytes) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(bytes);
+            StringBuilder hex = new StringBuilder(digest.length * 2);
+            for (byte b : digest) {
+                hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            // Every Java runtime is required to provide SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // ------------------------------------------
+    // Index
+    // ------------------------------------------
+
+    /** Appends the index entries recorded since the last call to screenshots/index.jsonl */
+    public synchronized void writeIndex() {
+        List<Map<String, String>> entries = new ArrayList<>();
+        for (Map<String, String> entry; (entry = pendingEntries.poll()) != null; ) {
+            entries.add(entry);
+        }
+        if (entries.isEmpty()) {
+            return;
+        }
+
+        StringBuilder lines = new StringBuilder();
+        for (Map<String, String> entry : entries) {
+            lines.append(toJsonLine(entry)).append('\n');
+        }
+        try {
+            Files.createDirectories(ROOT);
+            try (FileChannel channel = FileChannel.open(INDEX,
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+                // Blocks while another fork appends; closing the channel lets go of the lock
+                channel.lock();
+
+                ByteBuffer buffer = ByteBuffer.wrap(lines.toString().getBytes(StandardCharsets.UTF_8));
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+            }
+        } catch (IOException e) {
+            System.out.println("Could not update the screenshot index " + INDEX);
+            e.printStackTrace();
+        }
+    }
+
+    private static String toJsonLine(Map<String, String> entry) {
+        Writer line = new StringWriter();
+        try (JsonOutput out = new Json().newOutput(line)) {
+            out.setPrettyPrint(false).write(entry);
+        }
+        return line.toString();
+    }
+}
@@ -0,0 +1,224 @@
+package utils;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Iterator;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+
+/**
+ * ScreenshotWriter saves screenshots to disk on background threads, so a test
+ * only pays for the capture itself and not for the file I/O.
+ *
+ * Page objects hand over the PNG bytes returned by the browser and carry on.
+ * At most {@code screenshotQueueSize} screenshots wait in memory; when the
+ * queue is full, the capturing thread blocks until a writer frees a slot, so
+ * a burst of captures cannot run the JVM out of memory. With
+ * {@code screenshotRecompress=true} each PNG is re-encoded at the highest
+ * compression level on the writer thread (kept only if it comes out smaller).
+ *
+ * Call {@link #flush()} before reading the files back; ScreenshotWriterListener
+ * flushes at the end of every suite, and a shutdown hook covers runs without it.
+ */
+public class ScreenshotWriter {
+
+    private static final ScreenshotWriter INSTANCE = new ScreenshotWriter();
+
+    // Longest time the shutdown hook waits for queued screenshots
+    private static final long SHUTDOWN_FLUSH_SECONDS = 30;
+
+    private final ThreadPoolExecutor executor;
+    private final boolean recompress;
+
+    // Screenshots handed over but not yet written (queued or in progress)
+    private final Object pendingLock = new Object();
+    private int pending;
+
+    private ScreenshotWriter() {
+        int threads = Math.max(1, ConfigReader.getInt("screenshotWriterThreads", 2));
+        int queueSize = Math.max(1, ConfigReader.getInt("screenshotQueueSize", 16));
+        recompress = ConfigReader.getBoolean("screenshotRecompress", false);
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueSize), runnable -> {
+                    Thread thread = new Thread(runnable, "screenshot-writer-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, ScreenshotWriter::waitForSlot);
+
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> flush(SHUTDOWN_FLUSH_SECONDS, TimeUnit.SECONDS),
+                "screenshot-writer-shutdown"));
+    }
+
+    public static ScreenshotWriter getInstance() {
+        return INSTANCE;
+    }
+
+    // ------------------------------------------
+    // Writing
+    // ------------------------------------------
+
+    /**
+     * Queues a PNG to be written to the given file and returns immediately,
+     * or blocks while the queue is full. Missing directories are created, and
+     * the file appears complete or not at all.
+     *
+     * @param png    PNG bytes, as returned by getScreenshotAs(OutputType.BYTES)
+     * @param target File to write
+     */
+    public void write(byte[] png, Path target) {
+        write(png, target, null);
+    }
+
+    /**
+     * Queues a PNG like {@link #write(byte[], Path)}, and runs a callback on the
+     * writer thread if the file could not be written.
+     *
+     * @param png     PNG bytes, as returned by getScreenshotAs(OutputType.BYTES)
+     * @param target  File to write
+     * @param onError Run after a failed write, or null
+     */
+    public void write(byte[] png, Path target, Runnable onError) {
+        synchronized (pendingLock) {
+            pending++;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    if (!writeNow(png, target) && onError != null) {
+                        onError.run();
+                    }
+                } finally {
+                    done();
+                }
+            });
+        } catch (RuntimeException e) {
+            done();
+            throw e;
+        }
+    }
+
+    /** Backpressure: a full queue makes the capturing thread wait for a free slot */
+    private static void waitForSlot(Runnable task, ThreadPoolExecutor executor) {
+        try {
+            executor.getQueue().put(task);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RejectedExecutionException("Interrupted while waiting to queue a screenshot", e);
+        }
+    }
+
+    /** Writes the file; returns false (after logging why) if it could not be written */
+    private boolean writeNow(byte[] png, Path target) {
+        Path temp = null;
+        try {
+            Path directory = target.toAbsolutePath().getParent();
+            Files.createDirectories(directory);
+            // Write to a uniquely named file next to the target and move it into place, so no one ever
+            // reads a half-written file, even when several JVMs store the same image at once
+            temp = Files.createTempFile(directory, target.getFileName().toString(), ".tmp");
+            Files.write(temp, recompress ? recompress(png) : png);
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            return true;
+        } catch (IOException | RuntimeException e) {
+            System.out.println("Could not write screenshot " + target);
+            e.printStackTrace();
+            deleteQuietly(temp);
+            return false;
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        if (file == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            // Only a leftover temporary file; nothing to report
+        }
+    }
+
+    private void done() {
+        synchronized (pendingLock) {
+            if (--pending == 0) {
+                pendingLock.notifyAll();
+            }
+        }
+    }
+
+    // ------------------------------------------
+    // Flushing
+    // ------------------------------------------
+
+    /** Waits until every screenshot handed over so far has been written */
+    public void flush() {
+        flush(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Waits until every screenshot handed over so far has been written, or the timeout passes.
+     *
+     * @return true if nothing is left to write
+     */
+    public boolean flush(long timeout, TimeUnit unit) {
+        long deadline = System.nanoTime() + Math.min(unit.toNanos(timeout), Long.MAX_VALUE / 2);
+        synchronized (pendingLock) {
+            try {
+                while (pending > 0) {
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        return false;
+                    }
+                    TimeUnit.NANOSECONDS.timedWait(pendingLock, remaining);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+            return true;
+        }
+    }
+
+    // ------------------------------------------
+    // PNG Recompression
+    // ------------------------------------------
+
+    /** Re-encodes the PNG with maximum deflate compression; returns the original if that is not smaller */
+    static byte[] recompress(byte[] png) throws IOException {
+        BufferedImage image = ImageIO.read(new ByteArrayInputStream(png));
+        Iterator<ImageWriter> writers = ImageIO.getImageWritersByFormatName("png");
+        if (image == null || !writers.hasNext()) {
+            return png;
+        }
+
+        ImageWriter writer = writers.next();
+        ByteArrayOutputStream out = new ByteArrayOutputStream(png.length);
+        try (ImageOutputStream imageOut = ImageIO.createImageOutputStream(out)) {
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            if (param.canWriteCompressed()) {
+                param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+                param.setCompressionQuality(0f);
+            }
+            writer.setOutput(imageOut);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return out.size() < png.length ? out.toByteArray() : png;
+    }
+}
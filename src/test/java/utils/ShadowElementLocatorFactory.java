@@ -0,0 +1,185 @@
+package utils;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.ParameterizedType;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.SearchContext;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.pagefactory.DefaultElementLocator;
+import org.openqa.selenium.support.pagefactory.ElementLocator;
+import org.openqa.selenium.support.pagefactory.ElementLocatorFactory;
+
+/**
+ * ShadowElementLocatorFactory creates locators for {@link FindByShadow}
+ * fields that are resolved in bulk: the first time any of a page object's
+ * shadow fields is used, every shadow path of that page object is resolved in
+ * a single script. Each field takes its prefetched result on its next lookup,
+ * so a page with many shadow fields costs one round trip, not one per field
+ * and level. Later lookups resolve only the field asking, through a
+ * {@link ShadowRootCache} that the bulk lookup has already filled with the
+ * shadow hosts it found: while a host stays attached, its field is found with
+ * one query on that host's shadow root, and a detached host is dropped and
+ * its path resolved again from the top.
+ *
+ * Fields without {@code @FindByShadow} get PageFactory's default locator.
+ * {@link CachingElementLocatorFactory} builds on this factory, which adds
+ * caching and a retry when a prefetched element has gone stale.
+ */
+public class ShadowElementLocatorFactory implements ElementLocatorFactory {
+
+    private final SearchContext searchContext;
+    private final List<ShadowElementLocator> shadowLocators = new CopyOnWriteArrayList<>();
+
+    // Whether the bulk lookup has run since creation or the last reset
+    private boolean prefetched;
+
+    // Shadow hosts for single-field lookups; created on first use, as it needs a script executor
+    private ShadowRootCache shadowRoots;
+
+    private final AtomicLong bulkQueries = new AtomicLong();
+
+    public ShadowElementLocatorFactory(SearchContext searchContext) {
+        this.searchContext = searchContext;
+    }
+
+    @Override
+    public ElementLocator createLocator(Field field) {
+        FindByShadow path = field.getAnnotation(FindByShadow.class);
+        if (path == null) {
+            return new DefaultElementLocator(searchContext, field);
+        }
+        ShadowElementLocator locator = new ShadowElementLocator(field, path.value());
+        shadowLocators.add(locator);
+        return locator;
+    }
+
+    /** Whether a field is a {@code List<WebElement>} declared with {@code @FindByShadow} */
+    public static boolean isShadowListField(Field field) {
+        return field.getAnnotation(FindByShadow.class) != null
+                && List.class.isAssignableFrom(field.getType())
+                && field.getGenericType() instanceof ParameterizedType
+                && WebElement.class.equals(((ParameterizedType) field.getGenericType()).getActualTypeArguments()[0]);
+    }
+
+    /**
+     * Forgets prefetched results and cached shadow hosts, so the next lookup
+     * resolves every shadow field again in one script.
+     */
+    public synchronized void reset() {
+        shadowLocators.forEach(locator -> locator.result = null);
+        prefetched = false;
+        if (shadowRoots != null) {
+            shadowRoots.invalidateAll();
+        }
+    }
+
+    /** Cache of the shadow hosts found for this page object's shadow fields */
+    public synchronized ShadowRootCache getShadowRootCache() {
+        if (shadowRoots == null) {
+            shadowRoots = new ShadowRootCache(ByShadow.executorFor(searchContext), startElement());
+        }
+        return shadowRoots;
+    }
+
+    /** Number of scripts run to resolve shadow fields (bulk lookups plus shadow root cache lookups) */
+    public synchronized long getQueries() {
+        long queries = bulkQueries.get();
+        if (shadowRoots != null) {
+            // A lookup on a detached host costs a second script to resolve the path again
+            queries += shadowRoots.getHits() + shadowRoots.getMisses() + shadowRoots.getInvalidations();
+        }
+        return queries;
+    }
+
+    private WebElement startElement() {
+        return searchContext instanceof WebElement ? (WebElement) searchContext : null;
+    }
+
+    // ------------------------------------------
+    // Resolving
+    // ------------------------------------------
+
+    /**
+     * Resolves every shadow field on the first call (after creation or reset)
+     * and caches their hosts; otherwise resolves just the one asking, through
+     * the shadow root cache.
+     */
+    private synchronized void resolve(ShadowElementLocator requester) {
+        ShadowRootCache cache = getShadowRootCache();
+        if (prefetched) {
+            try {
+                requester.result = new ByShadow.Resolved(null, cache.findElements(requester.selectors), null);
+            } catch (NoSuchElementException e) {
+                requester.result = new ByShadow.Resolved(null, Collections.emptyList(), e.getRawMessage());
+            }
+            return;
+        }
+
+        List<String[]> paths = new ArrayList<>();
+        shadowLocators.forEach(locator -> paths.add(locator.selectors));
+        List<ByShadow.Resolved> results = ByShadow.queryAll(ByShadow.executorFor(searchContext), startElement(), paths);
+        bulkQueries.incrementAndGet();
+        prefetched = true;
+
+        for (int i = 0; i < shadowLocators.size(); i++) {
+            ShadowElementLocator locator = shadowLocators.get(i);
+            locator.result = results.get(i);
+            cache.remember(locator.selectors, results.get(i).host);
+        }
+    }
+
+    // ------------------------------------------
+    // Shadow Locator
+    // ------------------------------------------
+
+    /** Locator for one {@code @FindByShadow} field; each prefetched result is handed out once */
+    private final class ShadowElementLocator implements ElementLocator {
+
+        private final Field field;
+        private final String[] selectors;
+        private volatile ByShadow.Resolved result;
+
+        ShadowElementLocator(Field field, String[] selectors) {
+            this.field = field;
+            this.selectors = selectors;
+        }
+
+        @Override
+        public WebElement findElement() {
+            ByShadow.Resolved resolved = take();
+            if (resolved.failure != null) {
+                throw new NoSuchElementException(resolved.failure);
+            }
+            if (resolved.elements.isEmpty()) {
+                throw new NoSuchElementException("Cannot locate " + ByShadow.path(selectors) + " for " + field.getName());
+            }
+            return resolved.elements.get(0);
+        }
+
+        @Override
+        public List<WebElement> findElements() {
+            return take().elements;
+        }
+
+        private ByShadow.Resolved take() {
+            synchronized (ShadowElementLocatorFactory.this) {
+                if (result == null) {
+                    resolve(this);
+                }
+                ByShadow.Resolved taken = result;
+                result = null;
+                return taken;
+            }
+        }
+
+        @Override
+        public String toString() {
+            return field.getName() + " " + ByShadow.path(selectors);
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package utils;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.WebElement;
+
+/**
+ * ShadowRootCache remembers the innermost shadow host of each shadow path a
+ * page object resolves, so later lookups on the same path query that host's
+ * shadow root directly instead of walking the chain again.
+ *
+ * A cached host that has been detached from the document (the page
+ * re-rendered it, or navigated away) is dropped and the path is resolved
+ * from the top again with {@link ByShadow}. Either way a lookup is a single
+ * script call (two when a detached host has to be dropped first). Create one
+ * cache per page object; {@link ShadowElementLocatorFactory} keeps one for the
+ * {@link FindByShadow} fields of the page object it initializes.
+ */
+public class ShadowRootCache {
+
+    // Matches the last selector inside a cached host's shadow root; null if the host is detached.
+    // arguments: [0] shadow host, [1] CSS selector
+    private static final String CACHED_HOST_SCRIPT =
+            "var host = arguments[0];"
+          + "if (!host.isConnected || !host.shadowRoot) { return null; }"
+          + "return Array.prototype.slice.call(host.shadowRoot.querySelectorAll(arguments[1]));";
+
+    private final JavascriptExecutor js;
+
+    // Element the paths start from, or null for the document
+    private final WebElement start;
+
+    // Host selectors of a path (all but the last selector) -> innermost shadow host
+    private final Map<List<String>, WebElement> hosts = new ConcurrentHashMap<>();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public ShadowRootCache(JavascriptExecutor js) {
+        this(js, null);
+    }
+
+    /**
+     * Cache for paths that start below an element rather than at the document.
+     *
+     * @param js    Executor of the element's driver
+     * @param start Element the shadow paths start from, or null for the document
+     */
+    public ShadowRootCache(JavascriptExecutor js, WebElement start) {
+        this.js = js;
+        this.start = start;
+    }
+
+    // ------------------------------------------
+    // Lookups
+    // ------------------------------------------
+
+    /**
+     * Locates the first element matching a shadow path.
+     *
+     * @param selectors CSS selectors of the shadow hosts, outermost first, then of the element
+     * @throws NoSuchElementException if a host or the element cannot be found
+     */
+    public WebElement findElement(String... selectors) {
+        List<WebElement> elements = findElements(selectors);
+        if (elements.isEmpty()) {
+            throw new NoSuchElementException("Cannot locate " + ByShadow.path(selectors));
+        }
+        return elements.get(0);
+    }
+
+    /**
+     * Locates every element matching a shadow path.
+     *
+     * @param selectors CSS selectors of the shadow hosts, outermost first, then of the elements
+     * @throws NoSuchElementException if a shadow host cannot be found
+     */
+    public List<WebElement> findElements(String... selectors) {
+        List<String> hostPath = hostPath(selectors);
+        WebElement host = hostPath.isEmpty() ? null : hosts.get(hostPath);
+
+        if (host != null) {
+            List<WebElement> elements = queryCachedHost(host, selectors[selectors.length - 1]);
+            if (elements != null) {
+                hits.incrementAndGet();
+                return elements;
+            }
+            hosts.remove(hostPath, host);
+            invalidations.incrementAndGet();
+        }
+
+        misses.incrementAndGet();
+        ByShadow.Resolved resolved = ByShadow.query(js, start, selectors);
+        remember(selectors, resolved.host);
+        return resolved.elements;
+    }
+
+    /** Caches the innermost host of a path resolved elsewhere, e.g. by a bulk query */
+    void remember(String[] selectors, WebElement host) {
+        if (host != null) {
+            hosts.put(hostPath(selectors), host);
+        }
+    }
+
+    /** Host selectors of a path: all but the last selector */
+    private static List<String> hostPath(String[] selectors) {
+        return Arrays.asList(selectors).subList(0, Math.max(0, selectors.length - 1));
+    }
+
+    /** Elements inside the cached host's shadow root, or null if the host is no longer attached */
+    private List<WebElement> queryCachedHost(WebElement host, String selector) {
+        try {
+            Object result = js.executeScript(CACHED_HOST_SCRIPT, host, selector);
+            return result == null ? null : ByShadow.toElements(result);
+        } catch (StaleElementReferenceException e) {
+            return null;
+        }
+    }
+
+    // ------------------------------------------
+    // Cache Control & Statistics
+    // ------------------------------------------
+
+    /** Drops every cached host, e.g. after navigating to another page */
+    public void invalidateAll() {
+        hosts.clear();
+    }
+
+    /** Number of lookups answered from a cached shadow host */
+    public long getHits() {
+        return hits.get();
+    }
+
+    /** Number of lookups that resolved the path from the document */
+    public long getMisses() {
+        return misses.get();
+    }
+
+    /** Number of cached hosts dropped because they were detached */
+    public long getInvalidations() {
+        return invalidations.get();
+    }
+
+    @Override
+    public String toString() {
+        return "Shadow root cache: " + hits.get() + " hits, " + misses.get() + " misses, "
+                + invalidations.get() + " invalidations";
+    }
+}
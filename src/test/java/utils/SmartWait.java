@@ -0,0 +1,224 @@
+package utils;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.NotFoundException;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.support.ui.FluentWait;
+import org.openqa.selenium.support.ui.Sleeper;
+import org.openqa.selenium.support.ui.WebDriverWait;
+
+/**
+ * SmartWait is the single place tests and page objects get their waits from.
+ *
+ * Instead of polling at a fixed interval (500 ms for WebDriverWait, 2 s in the
+ * old fluent wait demo), every wait polls with an adaptive backoff: it starts
+ * at {@code waitInitialPollMillis} and grows by {@code waitBackoffFactor} up to
+ * {@code waitMaxPollMillis}, so fast conditions return within a few
+ * milliseconds and slow ones do not flood the driver with requests.
+ *
+ * {@link #untilVisibleInBrowser(WebDriver, String, Duration)} goes further and
+ * waits inside the page with a MutationObserver, returning as soon as the DOM
+ * change that makes the element visible happens.
+ *
+ * The driver-side waits switch the session's implicit wait off while they
+ * poll, so each poll fails fast instead of stacking the implicit wait on top,
+ * and put it back when they return. Page objects that look elements up
+ * directly keep the configured {@code implicitWait}.
+ */
+public class SmartWait {
+
+    // The driver's default script timeout; in-browser waits longer than this raise it first
+    private static final Duration DEFAULT_SCRIPT_TIMEOUT = Duration.ofSeconds(30);
+
+    // Resolves with true once the element matching the XPath is visible, or false
+    // when the timeout passes. arguments: [0] XPath, [1] timeout in ms, [2] callback
+    private static final String VISIBLE_OBSERVER_SCRIPT =
+            "var xpath = arguments[0], timeoutMs = arguments[1], done = arguments[2];"
+          + "function isVisible() {"
+          + "  var el = document.evaluate(xpath, document, null,"
+          + "      XPathResult.FIRST_ORDERED_NODE_TYPE, null).singleNodeValue;"
+          + "  if (!el) { return false; }"
+          + "  var style = window.getComputedStyle(el);"
+          + "  return style.visibility !== 'hidden' && style.display !== 'none'"
+          + "      && el.getClientRects().length > 0;"
+          + "}"
+          + "if (isVisible()) { done(true); return; }"
+          + "var finished = false;"
+          + "var observer = new MutationObserver(function () {"
+          + "  if (!finished && isVisible()) { finish(true); }"
+          + "});"
+          + "function finish(result) {"
+          + "  finished = true; observer.disconnect(); clearTimeout(timer); done(result);"
+          + "}"
+          + "var timer = setTimeout(function () { finish(isVisible()); }, timeoutMs);"
+          + "observer.observe(document.documentElement,"
+          + "    { attributes: true, childList: true, subtree: true, characterData: true });";
+
+    private SmartWait() {
+    }
+
+    // ------------------------------------------
+    // Driver-Side Waits with Adaptive Polling
+    // ------------------------------------------
+
+    /**
+     * Creates a WebDriverWait that polls with adaptive backoff. The backoff
+     * restarts at its initial interval on every {@code until} call, so one
+     * instance can be shared by a whole test.
+     *
+     * @param driver  WebDriver to wait on
+     * @param timeout Maximum time to wait
+     */
+    public static WebDriverWait webDriverWait(WebDriver driver, Duration timeout) {
+        return new AdaptiveWebDriverWait(driver, timeout);
+    }
+
+    /**
+     * Creates a FluentWait that polls with adaptive backoff and ignores
+     * element-not-found errors while polling.
+     *
+     * @param driver  WebDriver to wait on
+     * @param timeout Maximum time to wait
+     */
+    public static FluentWait<WebDriver> fluentWait(WebDriver driver, Duration timeout) {
+        BackoffSleeper sleeper = new BackoffSleeper();
+        return new AdaptiveFluentWait(driver, sleeper)
+                .withTimeout(timeout)
+                .pollingEvery(sleeper.initial)
+                .ignoring(NotFoundException.class);
+    }
+
+    // ------------------------------------------
+    // In-Browser Waits
+    // ------------------------------------------
+
+    /**
+     * Waits inside the browser, with a MutationObserver, until the element
+     * located by the XPath is visible. Costs a single round trip no matter
+     * how long the wait takes.
+     *
+     * @param driver  WebDriver to wait on (must support JavaScript)
+     * @param xpath   XPath of the element to wait for
+     * @param timeout Maximum time to wait
+     * @throws TimeoutException if the element is not visible within the timeout
+     */
+    public static void untilVisibleInBrowser(WebDriver driver, String xpath, Duration timeout) {
+        // Raise the script timeout for long waits only, and put it back afterwards so a pooled
+        // session does not carry it into the next test
+        WebDriver.Timeouts timeouts = driver.manage().timeouts();
+        Duration previousScriptTimeout = null;
+        if (timeout.compareTo(DEFAULT_SCRIPT_TIMEOUT) >= 0) {
+            previousScriptTimeout = timeouts.getScriptTimeout();
+            timeouts.scriptTimeout(timeout.plusSeconds(5));
+        }
+
+        Object visible;
+        try {
+            visible = ((JavascriptExecutor) driver).executeAsyncScript(
+                    VISIBLE_OBSERVER_SCRIPT, xpath, timeout.toMillis());
+        } finally {
+            if (previousScriptTimeout != null) {
+                timeouts.scriptTimeout(previousScriptTimeout);
+            }
+        }
+
+        if (!Boolean.TRUE.equals(visible)) {
+            throw new TimeoutException("Element " + xpath + " was not visible after " + timeout.toMillis() + " ms");
+        }
+    }
+
+    // ------------------------------------------
+    // Adaptive Polling
+    // ------------------------------------------
+
+    /**
+     * Sleeper that ignores FluentWait's fixed interval and sleeps for a growing
+     * interval instead: initial, initial * factor, ... capped at the maximum.
+     */
+    static final class BackoffSleeper implements Sleeper {
+
+        private final Duration initial = Duration.ofMillis(ConfigReader.getInt("waitInitialPollMillis", 5));
+        private final Duration max = Duration.ofMillis(ConfigReader.getInt("waitMaxPollMillis", 500));
+        private final double factor = ConfigReader.getDouble("waitBackoffFactor", 1.5);
+
+        private Duration next = initial;
+
+        @Override
+        public void sleep(Duration ignoredInterval) throws InterruptedException {
+            Duration current;
+            synchronized (this) {
+                current = next;
+                long grown = (long) Math.ceil(current.toMillis() * factor);
+                next = Duration.ofMillis(Math.min(Math.max(grown, 1), max.toMillis()));
+            }
+            Thread.sleep(current.toMillis());
+        }
+
+        synchronized void reset() {
+            next = initial;
+        }
+    }
+
+    /** WebDriverWait whose backoff restarts on every until() call, polling without the implicit wait */
+    private static final class AdaptiveWebDriverWait extends WebDriverWait {
+
+        private final WebDriver driver;
+        private final BackoffSleeper sleeper;
+
+        AdaptiveWebDriverWait(WebDriver driver, Duration timeout) {
+            this(driver, timeout, new BackoffSleeper());
+        }
+
+        private AdaptiveWebDriverWait(WebDriver driver, Duration timeout, BackoffSleeper sleeper) {
+            super(driver, timeout, sleeper.initial, Clock.systemDefaultZone(), sleeper);
+            this.driver = driver;
+            this.sleeper = sleeper;
+        }
+
+        @Override
+        public <V> V until(Function<? super WebDriver, V> isTrue) {
+            sleeper.reset();
+            return withoutImplicitWait(driver, () -> super.until(isTrue));
+        }
+    }
+
+    /** FluentWait that polls without the implicit wait */
+    private static final class AdaptiveFluentWait extends FluentWait<WebDriver> {
+
+        private final WebDriver driver;
+
+        AdaptiveFluentWait(WebDriver driver, BackoffSleeper sleeper) {
+            super(driver, Clock.systemDefaultZone(), sleeper);
+            this.driver = driver;
+        }
+
+        @Override
+        public <V> V until(Function<? super WebDriver, V> isTrue) {
+            return withoutImplicitWait(driver, () -> super.until(isTrue));
+        }
+    }
+
+    /**
+     * Runs a wait with the session's implicit wait set to 0, then restores it.
+     * Sessions already at 0 are left alone after reading the timeout.
+     */
+    private static <V> V withoutImplicitWait(WebDriver driver, Supplier<V> wait) {
+        WebDriver.Timeouts timeouts = driver.manage().timeouts();
+        Duration implicitWait = timeouts.getImplicitWaitTimeout();
+        if (implicitWait.isZero()) {
+            return wait.get();
+        }
+
+        timeouts.implicitlyWait(Duration.ZERO);
+        try {
+            return wait.get();
+        } finally {
+            timeouts.implicitlyWait(implicitWait);
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package utils;
+
+import java.util.List;
+import org.testng.Assert;
+
+/**
+ * TableAssert compares table data through {@link TableSnapshot} and fails
+ * with the first differing cell instead of dumping both tables.
+ */
+public class TableAssert {
+
+    private TableAssert() {
+    }
+
+    /**
+     * Asserts that two tables (rows -> columns) hold the same data.
+     *
+     * @param actual   Table data read from the page
+     * @param expected Expected table data
+     * @param message  Message prefix used when the tables differ
+     */
+    public static void assertTableEquals(List<List<String>> actual, List<List<String>> expected, String message) {
+        TableSnapshot.CellDifference difference = TableSnapshot.of(expected).firstDifference(TableSnapshot.of(actual));
+        if (difference != null) {
+            Assert.fail(message + " First difference at " + difference);
+        }
+    }
+
+    /**
+     * Asserts that two paginated tables (pages -> rows -> columns) hold the same data.
+     *
+     * @param actual   Table data read from every page
+     * @param expected Expected table data for every page
+     * @param message  Message prefix used when the tables differ
+     */
+    public static void assertPagesEqual(List<List<List<String>>> actual, List<List<List<String>>> expected,
+            String message) {
+        Assert.assertEquals(actual.size(), expected.size(), message + " Page count differs.");
+        for (int p = 0; p < expected.size(); p++) {
+            assertTableEquals(actual.get(p), expected.get(p), message + " (page " + (p + 1) + ")");
+        }
+    }
+}
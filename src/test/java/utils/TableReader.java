@@ -0,0 +1,205 @@
+package utils;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebElement;
+
+/**
+ * TableReader pulls HTML table data out of the browser in a single
+ * JavaScript round trip instead of one WebDriver call per cell.
+ */
+public class TableReader {
+
+    // Shared in-page helpers: evaluate an XPath to a node list, read the <td> texts of up to
+    // count rows (-1 for all) from the first row index on, either of the rows an XPath matches
+    // or of a table's own rows (indexed directly, so a batch only touches the rows it reads)
+    private static final String HELPERS =
+            "function nodes(xpath) {"
+          + "  var found = document.evaluate(xpath, document, null,"
+          + "      XPathResult.ORDERED_NODE_SNAPSHOT_TYPE, null);"
+          + "  var list = [];"
+          + "  for (var i = 0; i < found.snapshotLength; i++) { list.push(found.snapshotItem(i)); }"
+          + "  return list;"
+          + "}"
+          + "function readRowList(rows, first, count, skipEmpty) {"
+          + "  var end = count < 0 ? rows.length : Math.min(rows.length, first + count);"
+          + "  var data = [];"
+          + "  for (var r = first; r < end; r++) {"
+          + "    var cells = rows[r].querySelectorAll('td');"
+          + "    var rowData = [];"
+          + "    for (var c = 0; c < cells.length; c++) {"
+          + "      var text = cells[c].innerText.trim();"
+          + "      if (!skipEmpty || text.length > 0) { rowData.push(text); }"
+          + "    }"
+          + "    data.push(rowData);"
+          + "  }"
+          + "  return data;"
+          + "}"
+          + "function readRows(xpath, first, count, skipEmpty) {"
+          + "  return readRowList(nodes(xpath), first, count, skipEmpty);"
+          + "}";
+
+    // arguments: [0] row XPath, [1] first row index, [2] row count (-1 for all), [3] skip empty cells
+    private static final String READ_ROWS_SCRIPT = HELPERS
+          + "return readRows(arguments[0], arguments[1], arguments[2], arguments[3]);";
+
+    // Reads a batch of a table's rows. The table is found from the first row the XPath matches,
+    // unless a previous batch already returned it; it is returned for the next batch.
+    // arguments: [0] table or null, [1] row XPath, [2] first row index, [3] row count, [4] skip empty cells
+    private static final String READ_TABLE_BATCH_SCRIPT = HELPERS
+          + "var table = arguments[0];"
+          + "if (!table) {"
+          + "  var firstRow = document.evaluate(arguments[1], document, null,"
+          + "      XPathResult.FIRST_ORDERED_NODE_TYPE, null).singleNodeValue;"
+          + "  table = firstRow && firstRow.closest('table');"
+          + "}"
+          + "if (!table) { return { table: null, rows: [] }; }"
+          + "return { table: table, rows: readRowList(table.rows, arguments[2], arguments[3], arguments[4]) };";
+
+    // Clicks through every pagination link and reads the table after each click.
+    // arguments: [0] pagination link XPath, [1] row XPath, [2] checkbox XPath or null
+    private static final String READ_PAGES_SCRIPT = HELPERS
+          + "var pageCount = nodes(arguments[0]).length;"
+          + "var pages = [];"
+          + "var timings = [];"
+          + "for (var p = 0; p < pageCount; p++) {"
+          + "  var start = performance.now();"
+          + "  if (p > 0) { nodes(arguments[0])[p].click(); }"
+          + "  pages.push(readRows(arguments[1], 1, -1, true));"
+          + "  if (arguments[2]) { nodes(arguments[2]).forEach(function (box) { box.click(); }); }"
+          + "  timings.push(performance.now() - start);"
+          + "}"
+          + "return { pages: pages, timings: timings };";
+
+    private TableReader() {
+    }
+
+    /**
+     * Reads every data row matched by the XPath, skipping the header row.
+     *
+     * @param js             JavascriptExecutor of the current driver
+     * @param tableXPath     XPath of the table rows (usually ending with //tr)
+     * @param skipEmptyCells Whether cells with no text are left out of a row
+     * @return List of lists, where each inner list represents a single row's data.
+     */
+    public static List<List<String>> readRows(JavascriptExecutor js, String tableXPath, boolean skipEmptyCells) {
+        Object result = js.executeScript(READ_ROWS_SCRIPT, tableXPath, 1, -1, skipEmptyCells);
+        return toRows(result);
+    }
+
+    /**
+     * Reads one batch of rows of the table holding the first row matched by the XPath.
+     *
+     * @param js             JavascriptExecutor of the current driver
+     * @param tableXPath     XPath of the table rows (usually ending with //tr)
+     * @param firstRow       Index of the first row to read (0 is the header row)
+     * @param rowCount       Maximum number of rows to read
+     * @param skipEmptyCells Whether cells with no text are left out of a row
+     * @return The rows read; fewer than rowCount once the end of the table is reached
+     */
+    public static List<List<String>> readRowRange(JavascriptExecutor js, String tableXPath,
+            int firstRow, int rowCount, boolean skipEmptyCells) {
+        return readBatch(js, null, tableXPath, firstRow, rowCount, skipEmptyCells).rows;
+    }
+
+    /**
+     * Reads one batch of a table's rows, indexing the table's rows directly.
+     * Pass the table returned by the previous batch, so that only the first
+     * batch evaluates the XPath and every later batch costs the same
+     * wherever it starts.
+     *
+     * @param table      Table returned by a previous batch, or null to find it with the XPath
+     * @param tableXPath XPath of the table rows; its first match decides the table
+     */
+    static Batch readBatch(JavascriptExecutor js, WebElement table, String tableXPath,
+            int firstRow, int rowCount, boolean skipEmptyCells) {
+        Map<?, ?> result = (Map<?, ?>) js.executeScript(READ_TABLE_BATCH_SCRIPT,
+                table, tableXPath, firstRow, rowCount, skipEmptyCells);
+        return new Batch((WebElement) result.get("table"), toRows(result.get("rows")));
+    }
+
+    /** Rows of one batch, and the table they were read from */
+    static final class Batch {
+
+        final WebElement table;
+        final List<List<String>> rows;
+
+        Batch(WebElement table, List<List<String>> rows) {
+            this.table = table;
+            this.rows = rows;
+        }
+    }
+
+    /**
+     * Streams the data rows of the table holding the first row matched by the
+     * XPath (header skipped), fetching them lazily in batches. Only the batches
+     * actually consumed are read, so short-circuiting operations such as
+     * allMatch or findFirst stop early. The table is located once, by the first
+     * batch; later batches index its rows directly, so a batch costs the same
+     * at the end of a long table as at its start.
+     *
+     * @param js             JavascriptExecutor of the current driver
+     * @param tableXPath     XPath of the table rows (usually ending with //tr)
+     * @param batchSize      Number of rows fetched per round trip
+     * @param skipEmptyCells Whether cells with no text are left out of a row
+     */
+    public static Stream<List<String>> streamRows(JavascriptExecutor js, String tableXPath,
+            int batchSize, boolean skipEmptyCells) {
+        Iterator<List<String>> rows = new TableRowIterator(js, tableXPath, batchSize, skipEmptyCells);
+        return StreamSupport.stream(
+                Spliterators.spliteratorUnknownSize(rows, Spliterator.ORDERED | Spliterator.NONNULL), false);
+    }
+
+    /** Batch size for streamed table reads from config.properties (default 500) */
+    public static int defaultBatchSize() {
+        return ConfigReader.getInt("tableRowBatchSize", 500);
+    }
+
+    /**
+     * Clicks through every page of a paginated table inside the browser and
+     * reads each page's data rows (header skipped, empty cells left out).
+     *
+     * @param js              JavascriptExecutor of the current driver
+     * @param pageLinksXPath  XPath of the pagination links, in page order
+     * @param tableXPath      XPath of the table rows (usually ending with //tr)
+     * @param checkBoxXPath   XPath of checkboxes to click on each page, or null for none
+     * @param pageTimingsMillis Receives the in-browser time spent on each page
+     * @return Table data for each page (3D list: pages -> rows -> columns)
+     */
+    @SuppressWarnings("unchecked")
+    public static List<List<List<String>>> readPages(JavascriptExecutor js, String pageLinksXPath,
+            String tableXPath, String checkBoxXPath, List<Double> pageTimingsMillis) {
+        Map<String, Object> result = (Map<String, Object>) js.executeScript(
+                READ_PAGES_SCRIPT, pageLinksXPath, tableXPath, checkBoxXPath);
+
+        List<List<List<String>>> pages = new ArrayList<>();
+        for (Object page : (List<Object>) result.get("pages")) {
+            pages.add(toRows(page));
+        }
+        for (Object timing : (List<Object>) result.get("timings")) {
+            pageTimingsMillis.add(((Number) timing).doubleValue());
+        }
+        return pages;
+    }
+
+    /** Converts the nested lists returned by executeScript into rows of strings */
+    @SuppressWarnings("unchecked")
+    static List<List<String>> toRows(Object scriptResult) {
+        List<List<String>> rows = new ArrayList<>();
+        for (Object row : (List<Object>) scriptResult) {
+            List<String> rowData = new ArrayList<>();
+            for (Object cell : (List<Object>) row) {
+                rowData.add(String.valueOf(cell));
+            }
+            rows.add(rowData);
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,71 @@
+package utils;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebElement;
+
+/**
+ * TableRowIterator walks the data rows of an HTML table, fetching them from
+ * the browser a batch at a time so only one batch is held in memory. The
+ * first batch locates the table; the rest read its rows by index.
+ */
+public class TableRowIterator implements Iterator<List<String>> {
+
+    private final JavascriptExecutor js;
+    private final String tableXPath;
+    private final int batchSize;
+    private final boolean skipEmptyCells;
+
+    private List<List<String>> batch = List.of();
+
+    // Table found by the first batch; later batches read its rows directly
+    private WebElement table;
+    private int positionInBatch;
+    private int nextRow = 1; // row 0 is the header
+    private boolean lastBatch;
+
+    /**
+     * @param js             JavascriptExecutor of the current driver
+     * @param tableXPath     XPath of the table rows (usually ending with //tr)
+     * @param batchSize      Number of rows fetched per round trip
+     * @param skipEmptyCells Whether cells with no text are left out of a row
+     */
+    public TableRowIterator(JavascriptExecutor js, String tableXPath, int batchSize, boolean skipEmptyCells) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("batchSize must be at least 1, was " + batchSize);
+        }
+        this.js = js;
+        this.tableXPath = tableXPath;
+        this.batchSize = batchSize;
+        this.skipEmptyCells = skipEmptyCells;
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (positionInBatch < batch.size()) {
+            return true;
+        }
+        if (lastBatch) {
+            return false;
+        }
+
+        // Current batch used up: fetch the next one
+        TableReader.Batch read = TableReader.readBatch(js, table, tableXPath, nextRow, batchSize, skipEmptyCells);
+        table = read.table;
+        batch = read.rows;
+        positionInBatch = 0;
+        nextRow += batch.size();
+        lastBatch = batch.size() < batchSize;
+        return !batch.isEmpty();
+    }
+
+    @Override
+    public List<String> next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException("No more rows in table " + tableXPath);
+        }
+        return batch.get(positionInBatch++);
+    }
+}
@@ -0,0 +1,342 @@
+package utils;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * TableSnapshot is a compact, column-oriented copy of table data.
+ *
+ * Each column is stored either as a numeric column (an optional shared prefix
+ * such as "$" plus a {@code long[]} of unscaled values, e.g. "$10.99" becomes
+ * 1099) or as a dictionary column (each distinct string stored once plus an
+ * {@code int[]} of codes). Numeric encoding is only used when every value in
+ * the column round-trips to exactly the same text, so no data is lost.
+ *
+ * {@link #firstDifference(TableSnapshot)} compares two snapshots column by
+ * column and reports the first differing cell in row order.
+ */
+public class TableSnapshot {
+
+    // Marks a cell that is absent because its row is shorter than the column index
+    private static final int MISSING = -1;
+
+    private final int rowCount;
+    private final int[] rowWidths;
+    private final Column[] columns;
+
+    private TableSnapshot(int rowCount, int[] rowWidths, Column[] columns) {
+        this.rowCount = rowCount;
+        this.rowWidths = rowWidths;
+        this.columns = columns;
+    }
+
+    // ------------------------------------------
+    // Construction
+    // ------------------------------------------
+
+    /**
+     * Builds a snapshot from row-oriented table data, such as the result of
+     * readAllDataFromTable. Rows may have different lengths.
+     *
+     * @param rows List of rows, where each row is a list of cell values
+     */
+    public static TableSnapshot of(List<List<String>> rows) {
+        int rowCount = rows.size();
+        int[] rowWidths = new int[rowCount];
+        int columnCount = 0;
+
+        for (int r = 0; r < rowCount; r++) {
+            rowWidths[r] = rows.get(r).size();
+            columnCount = Math.max(columnCount, rowWidths[r]);
+        }
+
+        Column[] columns = new Column[columnCount];
+        for (int c = 0; c < columnCount; c++) {
+            String[] values = new String[rowCount];
+            for (int r = 0; r < rowCount; r++) {
+                values[r] = c < rowWidths[r] ? rows.get(r).get(c) : null;
+            }
+            Column numeric = NumericColumn.tryEncode(values);
+            columns[c] = numeric != null ? numeric : DictionaryColumn.encode(values);
+        }
+        return new TableSnapshot(rowCount, rowWidths, columns);
+    }
+
+    // ------------------------------------------
+    // Accessors
+    // ------------------------------------------
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    public int getColumnCount() {
+        return columns.length;
+    }
+
+    /** Returns the cell value, or null when the row has no cell at that column */
+    public String get(int row, int column) {
+        return column < rowWidths[row] ? columns[column].get(row) : null;
+    }
+
+    /** Returns true if the given column is stored as primitive numbers */
+    public boolean isNumericColumn(int column) {
+        return columns[column] instanceof NumericColumn;
+    }
+
+    /** Expands the snapshot back into row-oriented lists */
+    public List<List<String>> toRows() {
+        List<List<String>> rows = new ArrayList<>(rowCount);
+        for (int r = 0; r < rowCount; r++) {
+            List<String> row = new ArrayList<>(rowWidths[r]);
+            for (int c = 0; c < rowWidths[r]; c++) {
+                row.add(columns[c].get(r));
+            }
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    // ------------------------------------------
+    // Diffing
+    // ------------------------------------------
+
+    /**
+     * Finds the first cell (lowest row, then lowest column) that differs
+     * between this snapshot (expected) and another one (actual).
+     *
+     * @param actual Snapshot to compare against this one
+     * @return The first difference, or null if both tables are identical
+     */
+    public CellDifference firstDifference(TableSnapshot actual) {
+        int sharedRows = Math.min(rowCount, actual.rowCount);
+        int sharedColumns = Math.min(columns.length, actual.columns.length);
+
+        // Row lengths first: a shorter or longer row is a difference at its first unmatched cell
+        int firstRow = Integer.MAX_VALUE;
+        int firstColumn = Integer.MAX_VALUE;
+        for (int r = 0; r < sharedRows; r++) {
+            if (rowWidths[r] != actual.rowWidths[r]) {
+                firstRow = r;
+                firstColumn = Math.min(rowWidths[r], actual.rowWidths[r]);
+                break;
+            }
+        }
+
+        // Then each shared column, only scanning rows above the best difference so far
+        for (int c = 0; c < sharedColumns; c++) {
+            int limit = firstRow == Integer.MAX_VALUE ? sharedRows : Math.min(sharedRows, firstRow + 1);
+            int r = columns[c].firstDifference(actual.columns[c], limit);
+            if (r >= 0 && (r < firstRow || (r == firstRow && c < firstColumn))
+                    && c < rowWidths[r] && c < actual.rowWidths[r]) {
+                firstRow = r;
+                firstColumn = c;
+            }
+        }
+
+        if (firstRow == Integer.MAX_VALUE && rowCount != actual.rowCount) {
+            firstRow = sharedRows;
+            firstColumn = 0;
+        }
+        if (firstRow == Integer.MAX_VALUE) {
+            return null;
+        }
+        return new CellDifference(firstRow, firstColumn,
+                firstRow < rowCount ? get(firstRow, firstColumn) : null,
+                firstRow < actual.rowCount ? actual.get(firstRow, firstColumn) : null);
+    }
+
+    // ------------------------------------------
+    // Difference Report
+    // ------------------------------------------
+
+    /** A single differing cell; a null value means the cell does not exist on that side */
+    public static class CellDifference {
+
+        private final int row;
+        private final int column;
+        private final String expected;
+        private final String actual;
+
+        CellDifference(int row, int column, String expected, String actual) {
+            this.row = row;
+            this.column = column;
+            this.expected = expected;
+            this.actual = actual;
+        }
+
+        public int getRow() {
+            return row;
+        }
+
+        public int getColumn() {
+            return column;
+        }
+
+        public String getExpected() {
+            return expected;
+        }
+
+        public String getActual() {
+            return actual;
+        }
+
+        @Override
+        public String toString() {
+            return "row " + row + ", column " + column
+                    + ": expected [" + expected + "] but found [" + actual + "]";
+        }
+    }
+
+    // ------------------------------------------
+    // Column Encodings
+    // ------------------------------------------
+    private interface Column {
+
+        String get(int row);
+
+        /** First row below limit whose value differs from the other column, or -1 */
+        default int firstDifference(Column other, int limit) {
+            for (int r = 0; r < limit; r++) {
+                String mine = get(r);
+                String theirs = other.get(r);
+                if (mine == null ? theirs != null : !mine.equals(theirs)) {
+                    return r;
+                }
+            }
+            return -1;
+        }
+    }
+
+    /** Distinct strings stored once, cells stored as codes into the dictionary */
+    private static final class DictionaryColumn implements Column {
+
+        private final String[] dictionary;
+        private final int[] codes;
+
+        private DictionaryColumn(String[] dictionary, int[] codes) {
+            this.dictionary = dictionary;
+            this.codes = codes;
+        }
+
+        static DictionaryColumn encode(String[] values) {
+            Map<String, Integer> index = new HashMap<>();
+            List<String> dictionary = new ArrayList<>();
+            int[] codes = new int[values.length];
+
+            for (int r = 0; r < values.length; r++) {
+                if (values[r] == null) {
+                    codes[r] = MISSING;
+                    continue;
+                }
+                Integer code = index.get(values[r]);
+                if (code == null) {
+                    code = dictionary.size();
+                    index.put(values[r], code);
+                    dictionary.add(values[r]);
+                }
+                codes[r] = code;
+            }
+            return new DictionaryColumn(dictionary.toArray(new String[0]), codes);
+        }
+
+        @Override
+        public String get(int row) {
+            int code = codes[row];
+            return code == MISSING ? null : dictionary[code];
+        }
+
+        @Override
+        public int firstDifference(Column other, int limit) {
+            // Same dictionary: compare the int codes directly
+            if (other instanceof DictionaryColumn
+                    && Arrays.equals(dictionary, ((DictionaryColumn) other).dictionary)) {
+                return Arrays.mismatch(codes, 0, limit, ((DictionaryColumn) other).codes, 0, limit);
+            }
+            return Column.super.firstDifference(other, limit);
+        }
+    }
+
+    /** Numbers with a shared prefix (e.g. "$"), stored as unscaled longs with a fixed scale */
+    private static final class NumericColumn implements Column {
+
+        private final String prefix;
+        private final int scale;
+        private final long[] unscaled;
+
+        private NumericColumn(String prefix, int scale, long[] unscaled) {
+            this.prefix = prefix;
+            this.scale = scale;
+            this.unscaled = unscaled;
+        }
+
+        /** Returns a numeric column, or null if any value does not round-trip exactly */
+        static NumericColumn tryEncode(String[] values) {
+            if (values.length == 0 || values[0] == null) {
+                return null;
+            }
+            String prefix = leadingNonNumeric(values[0]);
+            int scale = -1;
+            long[] unscaled = new long[values.length];
+
+            for (int r = 0; r < values.length; r++) {
+                String value = values[r];
+                if (value == null || !value.startsWith(prefix)) {
+                    return null;
+                }
+                BigDecimal number;
+                try {
+                    number = new BigDecimal(value.substring(prefix.length()));
+                } catch (NumberFormatException e) {
+                    return null;
+                }
+                if (scale == -1) {
+                    scale = Math.max(number.scale(), 0);
+                }
+                if (number.scale() != scale && !(scale == 0 && number.scale() <= 0)) {
+                    return null;
+                }
+                try {
+                    unscaled[r] = number.movePointRight(scale).longValueExact();
+                } catch (ArithmeticException e) {
+                    return null;
+                }
+            }
+
+            NumericColumn column = new NumericColumn(prefix, scale, unscaled);
+            for (int r = 0; r < values.length; r++) {
+                if (!values[r].equals(column.get(r))) {
+                    return null;
+                }
+            }
+            return column;
+        }
+
+        private static String leadingNonNumeric(String value) {
+            int i = 0;
+            while (i < value.length() && !Character.isDigit(value.charAt(i)) && value.charAt(i) != '-') {
+                i++;
+            }
+            return value.substring(0, i);
+        }
+
+        @Override
+        public String get(int row) {
+            return prefix + BigDecimal.valueOf(unscaled[row], scale).toPlainString();
+        }
+
+        @Override
+        public int firstDifference(Column other, int limit) {
+            // Same format: compare the primitive values directly
+            if (other instanceof NumericColumn
+                    && ((NumericColumn) other).scale == scale
+                    && ((NumericColumn) other).prefix.equals(prefix)) {
+                return Arrays.mismatch(unscaled, 0, limit, ((NumericColumn) other).unscaled, 0, limit);
+            }
+            return Column.super.firstDifference(other, limit);
+        }
+    }
+}
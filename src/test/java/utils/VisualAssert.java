@@ -0,0 +1,70 @@
+package utils;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import javax.imageio.ImageIO;
+import org.testng.Assert;
+
+/**
+ * VisualAssert checks screenshots against baseline images through
+ * {@link VisualDiff} and fails with the number of differing pixels and the
+ * path of the diff mask.
+ *
+ * Baselines live in {@code visualBaselineDir} (screenshots/baseline by
+ * default) as &lt;name&gt;.png. A missing baseline is recorded from the
+ * current capture, and {@code updateBaselines=true} replaces existing ones.
+ * Diff masks go to {@code visualDiffDir} (screenshots/diffs by default).
+ */
+public class VisualAssert {
+
+    private VisualAssert() {
+    }
+
+    /**
+     * Asserts that a screenshot matches its baseline.
+     *
+     * @param screenshot Captured PNG, e.g. as returned by ScreenshotsPage (flushed first if needed)
+     * @param name       Baseline name, e.g. "ToolsQA_Logo"
+     * @param diff       Comparison options
+     */
+    public static void assertMatchesBaseline(Path screenshot, String name, VisualDiff diff) {
+        ScreenshotWriter.getInstance().flush();
+        Path baseline = directory("visualBaselineDir", "screenshots/baseline").resolve(name + ".png");
+        try {
+            if (!Files.exists(baseline) || ConfigReader.getBoolean("updateBaselines", false)) {
+                Files.createDirectories(baseline.getParent());
+                Files.copy(screenshot, baseline, StandardCopyOption.REPLACE_EXISTING);
+                System.out.println("Recorded visual baseline " + baseline);
+                return;
+            }
+
+            BufferedImage expected = read(baseline);
+            BufferedImage actual = read(screenshot);
+            Path mask = directory("visualDiffDir", "screenshots/diffs").resolve(name + ".png");
+            VisualDiff.Result result = diff.compare(expected, actual, mask);
+            if (!result.matches()) {
+                Assert.fail("Screenshot " + name + " does not match " + baseline + ": " + result);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not compare " + screenshot + " with " + baseline, e);
+        }
+    }
+
+    private static Path directory(String key, String defaultDirectory) {
+        String configured = ConfigReader.get(key);
+        return Paths.get(configured == null || configured.isBlank() ? defaultDirectory : configured.trim());
+    }
+
+    private static BufferedImage read(Path file) throws IOException {
+        BufferedImage image = ImageIO.read(file.toFile());
+        if (image == null) {
+            throw new IOException(file + " is not a readable image");
+        }
+        return image;
+    }
+}
@@ -0,0 +1,286 @@
+package utils;
+
+import java.awt.AlphaComposite;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+import javax.imageio.ImageIO;
+
+/**
+ * VisualDiff compares a screenshot with a baseline image pixel by pixel.
+ *
+ * The images are split into tiles that are compared in parallel on all cores.
+ * Within a tile, each row is first compared as a block of ints (no per-pixel
+ * work for identical rows), and only differing rows are checked pixel by
+ * pixel. As soon as more pixels differ than {@link #maxDiffRatio(double)}
+ * allows, the remaining tiles are skipped. Only when the images do not match
+ * is the comparison repeated in full to count every difference and, if asked
+ * for, draw a diff mask (differing pixels in red over a faded copy of the
+ * baseline).
+ *
+ * Options:
+ * <ul>
+ *   <li>{@link #threshold(double)}: how different two colors must look to count
+ *       (0 = any change, 1 = everything matches), measured as perceived color
+ *       distance so anti-aliasing noise can be tolerated;</li>
+ *   <li>{@link #maxDiffRatio(double)}: share of pixels allowed to differ;</li>
+ *   <li>{@link #ignore(Rectangle)}: regions left out, e.g. clocks or carousels.</li>
+ * </ul>
+ */
+public class VisualDiff {
+
+    private static final int TILE_SIZE = 64;
+
+    // Largest possible YIQ color distance (black against white)
+    private static final double MAX_YIQ_DELTA = 35215;
+
+    private static final int DIFF_COLOR = 0xFFFF0000;
+
+    private static final Rectangle[] NO_REGIONS = new Rectangle[0];
+
+    private double threshold;
+    private double maxDiffRatio;
+    private final List<Rectangle> ignoredRegions = new ArrayList<>();
+
+    // ------------------------------------------
+    // Options
+    // ------------------------------------------
+
+    /** Exact comparison: any color change counts, and no pixel may differ */
+    public static VisualDiff exact() {
+        return new VisualDiff();
+    }
+
+    /** Comparison using visualDiffThreshold and visualDiffMaxRatio from config.properties */
+    public static VisualDiff fromConfig() {
+        return new VisualDiff()
+                .threshold(ConfigReader.getDouble("visualDiffThreshold", 0))
+                .maxDiffRatio(ConfigReader.getDouble("visualDiffMaxRatio", 0));
+    }
+
+    /** Color distance (0 to 1) below which two pixels count as equal */
+    public VisualDiff threshold(double threshold) {
+        this.threshold = threshold;
+        return this;
+    }
+
+    /** Share of compared pixels (0 to 1) that may differ while the images still match */
+    public VisualDiff maxDiffRatio(double maxDiffRatio) {
+        this.maxDiffRatio = maxDiffRatio;
+        return this;
+    }
+
+    /** Leaves a region (in image pixels) out of the comparison */
+    public VisualDiff ignore(Rectangle region) {
+        ignoredRegions.add(new Rectangle(region));
+        return this;
+    }
+
+    // ------------------------------------------
+    // Comparing
+    // ------------------------------------------
+
+    /**
+     * Compares two images.
+     *
+     * @param baseline Expected image
+     * @param actual   New capture
+     * @param diffMask File for the diff mask, written only when the images differ; null for none
+     */
+    public Result compare(BufferedImage baseline, BufferedImage actual, Path diffMask) throws IOException {
+        int width = baseline.getWidth();
+        int height = baseline.getHeight();
+        if (actual.getWidth() != width || actual.getHeight() != height) {
+            return new Result(false, -1, (long) width * height, null,
+                    "size " + actual.getWidth() + "x" + actual.getHeight() + " differs from baseline " + width + "x" + height);
+        }
+
+        int[] expectedPixels = argbPixels(baseline);
+        int[] actualPixels = argbPixels(actual);
+        long allowed = (long) Math.floor(maxDiffRatio * width * height);
+        int tilesAcross = (width + TILE_SIZE - 1) / TILE_SIZE;
+        int tileCount = tilesAcross * ((height + TILE_SIZE - 1) / TILE_SIZE);
+        double maxDelta = MAX_YIQ_DELTA * threshold * threshold;
+
+        // Quick pass: stop as soon as the allowance is used up
+        AtomicLong differing = new AtomicLong();
+        IntStream.range(0, tileCount).parallel().forEach(tile -> {
+            if (differing.get() <= allowed) {
+                long count = compareTile(tile, tilesAcross, width, height, expectedPixels, actualPixels, maxDelta, null);
+                if (count > 0) {
+                    differing.addAndGet(count);
+                }
+            }
+        });
+        if (differing.get() <= allowed) {
+            return new Result(true, differing.get(), (long) width * height, null, null);
+        }
+
+        // Mismatch: compare everything to get the full count and the mask
+        BufferedImage mask = diffMask == null ? null : new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        int[] maskPixels = mask == null ? null : ((DataBufferInt) mask.getRaster().getDataBuffer()).getData();
+        long total = IntStream.range(0, tileCount).parallel()
+                .mapToLong(tile -> compareTile(tile, tilesAcross, width, height, expectedPixels, actualPixels, maxDelta, maskPixels))
+                .sum();
+        if (mask != null) {
+            writeMask(mask, diffMask);
+        }
+        return new Result(false, total, (long) width * height, diffMask, null);
+    }
+
+    /**
+     * Counts the differing pixels of one tile. With a mask, also paints the
+     * tile's part of it; tiles cover separate pixels, so they can run in parallel.
+     */
+    private long compareTile(int tile, int tilesAcross, int width, int height,
+            int[] expected, int[] actual, double maxDelta, int[] mask) {
+        int x0 = (tile % tilesAcross) * TILE_SIZE;
+        int y0 = (tile / tilesAcross) * TILE_SIZE;
+        int x1 = Math.min(x0 + TILE_SIZE, width);
+        int y1 = Math.min(y0 + TILE_SIZE, height);
+        Rectangle[] ignored = ignoredRegionsIn(new Rectangle(x0, y0, x1 - x0, y1 - y0));
+
+        long count = 0;
+        for (int y = y0; y < y1; y++) {
+            int rowStart = y * width + x0;
+            int rowEnd = y * width + x1;
+            boolean rowEqual = Arrays.equals(expected, rowStart, rowEnd, actual, rowStart, rowEnd);
+            if (rowEqual && mask == null) {
+                continue;
+            }
+            for (int i = rowStart, x = x0; i < rowEnd; i++, x++) {
+                boolean differs = !rowEqual && expected[i] != actual[i]
+                        && colorDelta(expected[i], actual[i]) > maxDelta
+                        && !isIgnored(ignored, x, y);
+                if (differs) {
+                    count++;
+                }
+                if (mask != null) {
+                    mask[i] = differs ? DIFF_COLOR : faded(expected[i]);
+                }
+            }
+        }
+        return count;
+    }
+
+    private Rectangle[] ignoredRegionsIn(Rectangle tile) {
+        if (ignoredRegions.isEmpty()) {
+            return NO_REGIONS;
+        }
+        return ignoredRegions.stream().filter(tile::intersects).toArray(Rectangle[]::new);
+    }
+
+    private static boolean isIgnored(Rectangle[] regions, int x, int y) {
+        for (Rectangle region : regions) {
+            if (region.contains(x, y)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // ------------------------------------------
+    // Pixels and Colors
+    // ------------------------------------------
+
+    /** The image as packed ARGB ints, using its own buffer when it already is one */
+    private static int[] argbPixels(BufferedImage image) {
+        if (image.getType() == BufferedImage.TYPE_INT_ARGB && image.getRaster().getParent() == null) {
+            return ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+        }
+        BufferedImage argb = new BufferedImage(image.getWidth(), image.getHeight(), BufferedImage.TYPE_INT_ARGB);
+        Graphics2D graphics = argb.createGraphics();
+        graphics.setComposite(AlphaComposite.Src);
+        graphics.drawImage(image, 0, 0, null);
+        graphics.dispose();
+        return ((DataBufferInt) argb.getRaster().getDataBuffer()).getData();
+    }
+
+    /** Squared YIQ distance of two colors blended over white, weighted by how the eye perceives them */
+    private static double colorDelta(int first, int second) {
+        double r1 = blend(first >> 16, first >>> 24), g1 = blend(first >> 8, first >>> 24), b1 = blend(first, first >>> 24);
+        double r2 = blend(second >> 16, second >>> 24), g2 = blend(second >> 8, second >>> 24), b2 = blend(second, second >>> 24);
+
+        double y = (r1 - r2) * 0.29889531 + (g1 - g2) * 0.58662247 + (b1 - b2) * 0.11448223;
+        double i = (r1 - r2) * 0.59597799 - (g1 - g2) * 0.27417610 - (b1 - b2) * 0.32180189;
+        double q = (r1 - r2) * 0.21147017 - (g1 - g2) * 0.52261711 + (b1 - b2) * 0.31114694;
+        return 0.5053 * y * y + 0.299 * i * i + 0.1957 * q * q;
+    }
+
+    private static double blend(int channel, int alpha) {
+        return 255 + ((channel & 0xFF) - 255) * (alpha / 255.0);
+    }
+
+    /** Light gray version of a pixel, used for the unchanged parts of the diff mask */
+    private static int faded(int argb) {
+        int gray = (int) (blend(argb >> 16, argb >>> 24) * 0.299 + blend(argb >> 8, argb >>> 24) * 0.587
+                + blend(argb, argb >>> 24) * 0.114);
+        int light = 255 - (255 - gray) / 10;
+        return 0xFF000000 | light << 16 | light << 8 | light;
+    }
+
+    private static void writeMask(BufferedImage mask, Path file) throws IOException {
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        ImageIO.write(mask, "png", file.toFile());
+    }
+
+    // ------------------------------------------
+    // Result
+    // ------------------------------------------
+
+    /** Outcome of a comparison */
+    public static class Result {
+
+        private final boolean matches;
+        private final long differingPixels;
+        private final long totalPixels;
+        private final Path diffMask;
+        private final String reason;
+
+        Result(boolean matches, long differingPixels, long totalPixels, Path diffMask, String reason) {
+            this.matches = matches;
+            this.differingPixels = differingPixels;
+            this.totalPixels = totalPixels;
+            this.diffMask = diffMask;
+            this.reason = reason;
+        }
+
+        public boolean matches() {
+            return matches;
+        }
+
+        /** Number of differing pixels outside ignored regions; -1 if the sizes differ */
+        public long getDifferingPixels() {
+            return differingPixels;
+        }
+
+        public long getTotalPixels() {
+            return totalPixels;
+        }
+
+        /** The written diff mask, or null if none was written */
+        public Path getDiffMask() {
+            return diffMask;
+        }
+
+        @Override
+        public String toString() {
+            if (reason != null) {
+                return reason;
+            }
+            String summary = differingPixels + " of " + totalPixels + " pixels differ";
+            return diffMask == null ? summary : summary + ", diff mask: " + diffMask;
+        }
+    }
+}